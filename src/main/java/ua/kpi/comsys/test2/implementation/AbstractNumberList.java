@@ -0,0 +1,584 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Спільна основа для списків цифр з довільним доступом за індексом.
+ * Реалізує всі операції {@link NumberList} через кілька примітивів
+ * (читання, запис, вставка та видалення цифри), які визначають нащадки
+ * зі своїм способом зберігання цифр.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+abstract class AbstractNumberList implements NumberList {
+
+    protected int modCount = 0; // лічильник модифікацій для ітераторів
+
+    /**
+     * Основа системи числення списку.
+     */
+    abstract int base();
+
+    /**
+     * Цифра за індексом; індекс уже перевірено.
+     */
+    abstract byte digitAt(int index);
+
+    /**
+     * Записує цифру за індексом; індекс і цифру вже перевірено.
+     */
+    abstract void setDigitAt(int index, byte digit);
+
+    /**
+     * Вставляє цифру перед index (index == size() - у кінець); аргументи вже перевірено.
+     */
+    abstract void insertDigitAt(int index, byte digit);
+
+    /**
+     * Видаляє цифру за індексом і повертає її; індекс уже перевірено.
+     */
+    abstract byte removeDigitAt(int index);
+
+    // Фіксує модифікацію списку
+    void modified() {
+        modCount++;
+    }
+
+    // Копіює цифри списку в масив, від старшої до молодшої
+    byte[] toDigitArray() {
+        int size = size();
+        byte[] digits = new byte[size];
+        for (int i = 0; i < size; i++) {
+            digits[i] = digitAt(i);
+        }
+        return digits;
+    }
+
+
+    /**
+     * Повертає число у десятковій системі як рядок.
+     *
+     * @return рядок з числом у десятковій системі
+     */
+    public String toDecimalString() {
+        if (isEmpty()) {
+            return "0";
+        }
+        return RadixConverter.digitString(RadixConverter.convert(toDigitArray(), 0, size(), base(), 10));
+    }
+
+
+    /**
+     * Saves the number, stored in the list, into specified file
+     * in <b>decimal</b> scale of notation.
+     *
+     * @param file - file where number has to be stored.
+     */
+    public void saveList(File file) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(toDecimalString());
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing to file: " + e.getMessage(), e);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "0";
+        }
+
+        int size = size();
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            sb.append(digitAt(i));
+        }
+        return sb.toString();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NumberList)) return false;
+
+        NumberList other = (NumberList) o;
+        int size = size();
+        if (size != other.size()) return false;
+
+        Iterator<Byte> it = other.iterator();
+        for (int i = 0; i < size; i++) {
+            if (digitAt(i) != it.next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Byte.hashCode(digitAt(i));
+        }
+        return hash;
+    }
+
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+
+    @Override
+    public Iterator<Byte> iterator() {
+        return new DigitIterator(0);
+    }
+
+
+    /**
+     * Повертає цифри списку як примітивний потік, що добре ділиться для паралельної обробки.
+     *
+     * @return послідовний потік цифр від старшої до молодшої
+     */
+    public IntStream digits() {
+        return StreamSupport.intStream(new DigitSpliterators.Indexed(this), false);
+    }
+
+
+    @Override
+    public Spliterator<Byte> spliterator() {
+        return DigitSpliterators.boxed(new DigitSpliterators.Indexed(this));
+    }
+
+
+    @Override
+    public Object[] toArray() {
+        int size = size();
+        Object[] array = new Object[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = digitAt(i);
+        }
+        return array;
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        int size = size();
+        T[] array = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        for (int i = 0; i < size; i++) {
+            array[i] = (T) Byte.valueOf(digitAt(i));
+        }
+        if (array.length > size) {
+            array[size] = null;
+        }
+        return array;
+    }
+
+
+    @Override
+    public boolean add(Byte e) {
+        insertDigitAt(size(), checkDigit(e));
+        modified();
+        return true;
+    }
+
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        removeDigitAt(index);
+        modified();
+        return true;
+    }
+
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public boolean addAll(Collection<? extends Byte> c) {
+        return addAll(size(), c);
+    }
+
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Byte> c) {
+        checkPositionIndex(index);
+        if (c == null || c.isEmpty()) {
+            return false;
+        }
+
+        for (Byte b : c) {
+            add(index++, b);
+        }
+        return true;
+    }
+
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        return filter(c, true);
+    }
+
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        return filter(c, false);
+    }
+
+    // Видаляє цифри, що містяться (remove == true) або не містяться в колекції
+    private boolean filter(Collection<?> c, boolean remove) {
+        boolean modified = false;
+        for (int i = size() - 1; i >= 0; i--) {
+            if (c.contains(digitAt(i)) == remove) {
+                removeDigitAt(i);
+                modified = true;
+            }
+        }
+        if (modified) {
+            modified();
+        }
+        return modified;
+    }
+
+
+    @Override
+    public void clear() {
+        for (int i = size() - 1; i >= 0; i--) {
+            removeDigitAt(i);
+        }
+        modified();
+    }
+
+
+    @Override
+    public Byte get(int index) {
+        checkElementIndex(index);
+        return digitAt(index);
+    }
+
+
+    @Override
+    public Byte set(int index, Byte element) {
+        checkElementIndex(index);
+        byte digit = checkDigit(element);
+        byte oldValue = digitAt(index);
+        setDigitAt(index, digit);
+        modified();
+        return oldValue;
+    }
+
+
+    @Override
+    public void add(int index, Byte element) {
+        checkPositionIndex(index);
+        insertDigitAt(index, checkDigit(element));
+        modified();
+    }
+
+
+    @Override
+    public Byte remove(int index) {
+        checkElementIndex(index);
+        byte removed = removeDigitAt(index);
+        modified();
+        return removed;
+    }
+
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Byte)) {
+            return -1;
+        }
+
+        byte target = (Byte) o;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (digitAt(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (!(o instanceof Byte)) {
+            return -1;
+        }
+
+        byte target = (Byte) o;
+        for (int i = size() - 1; i >= 0; i--) {
+            if (digitAt(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    public ListIterator<Byte> listIterator() {
+        return new DigitIterator(0);
+    }
+
+
+    @Override
+    public ListIterator<Byte> listIterator(int index) {
+        checkPositionIndex(index);
+        return new DigitIterator(index);
+    }
+
+
+    @Override
+    public List<Byte> subList(int fromIndex, int toIndex) {
+        int size = size();
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+        }
+
+        byte[] digits = new byte[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            digits[i - fromIndex] = digitAt(i);
+        }
+        return NumberListImpl.fromDigits(base(), digits, 0, digits.length);
+    }
+
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        int size = size();
+        if (index1 < 0 || index1 >= size || index2 < 0 || index2 >= size) {
+            return false;
+        }
+
+        if (index1 != index2) {
+            byte temp = digitAt(index1);
+            setDigitAt(index1, digitAt(index2));
+            setDigitAt(index2, temp);
+            modified();
+        }
+        return true;
+    }
+
+
+    @Override
+    public void sortAscending() {
+        sort(true);
+    }
+
+
+    @Override
+    public void sortDescending() {
+        sort(false);
+    }
+
+    // Сортування підрахунком: цифр лише base різних значень
+    private void sort(boolean ascending) {
+        int size = size();
+        if (size <= 1) {
+            return;
+        }
+
+        int[] counts = new int[base()];
+        for (int i = 0; i < size; i++) {
+            counts[digitAt(i)]++;
+        }
+
+        int index = 0;
+        for (int k = 0; k < counts.length; k++) {
+            byte digit = (byte) (ascending ? k : counts.length - 1 - k);
+            for (int n = counts[digit]; n > 0; n--) {
+                setDigitAt(index++, digit);
+            }
+        }
+        modified();
+    }
+
+
+    @Override
+    public void shiftLeft() {
+        if (size() <= 1) {
+            return;
+        }
+        byte first = removeDigitAt(0);
+        insertDigitAt(size(), first);
+        modified();
+    }
+
+
+    @Override
+    public void shiftRight() {
+        if (size() <= 1) {
+            return;
+        }
+        insertDigitAt(0, removeDigitAt(size() - 1));
+        modified();
+    }
+
+
+    byte checkDigit(Byte digit) {
+        if (digit == null) {
+            throw new NullPointerException("Null elements not permitted");
+        }
+        if (digit < 0 || digit >= base()) {
+            throw new IllegalArgumentException("Digit must be in range [0, " + (base() - 1) + "]");
+        }
+        return digit;
+    }
+
+    void checkElementIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    void checkPositionIndex(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    // ListIterator за індексами - для сховищ з довільним доступом
+    private class DigitIterator implements ListIterator<Byte> {
+        private int position;
+        private int lastReturned = -1;
+        private int expectedModCount;
+
+        DigitIterator(int index) {
+            position = index;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < size();
+        }
+
+        @Override
+        public Byte next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = position++;
+            return digitAt(lastReturned);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return position > 0;
+        }
+
+        @Override
+        public Byte previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = --position;
+            return digitAt(lastReturned);
+        }
+
+        @Override
+        public int nextIndex() {
+            return position;
+        }
+
+        @Override
+        public int previousIndex() {
+            return position - 1;
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            AbstractNumberList.this.remove(lastReturned);
+            position = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(Byte e) {
+            checkForComodification();
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            AbstractNumberList.this.set(lastReturned, e);
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void add(Byte e) {
+            checkForComodification();
+            AbstractNumberList.this.add(position++, e);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
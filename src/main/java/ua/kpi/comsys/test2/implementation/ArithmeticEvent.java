@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Подія Java Flight Recorder про арифметичну операцію над списками цифр.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+@Name("ua.kpi.comsys.test2.Arithmetic")
+@Label("Number Arithmetic")
+@Category({"NumberList", "Arithmetic"})
+@Description("Arithmetic operation on digit lists")
+final class ArithmeticEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Base")
+    int base;
+
+    @Label("Left Operand Digits")
+    long leftDigits;
+
+    @Label("Right Operand Digits")
+    long rightDigits;
+
+    @Label("Result Digits")
+    long resultDigits;
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Паралельне завантаження чисел з багатьох файлів. Читання виконується
+ * у віртуальних потоках (блокування на диску не займає потоків платформи),
+ * а переведення в список - в обмеженому пулі обчислювальних потоків, тож
+ * введення-виведення одних файлів перекривається з обчисленнями для інших.
+ * Кількість файлів, прочитаних, але ще не розібраних, обмежена, щоб тексти
+ * не накопичувались у пам'яті швидше, ніж їх встигають перевести.<p>
+ *
+ * На відміну від {@link NumberListImpl#NumberListImpl(java.io.File)}, помилки
+ * не приховуються: майбутнє результату завершується винятком
+ * ({@link IOException} або {@link NumberFormatException}).
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class BulkLoader implements AutoCloseable {
+
+    private static final int IN_FLIGHT_PER_THREAD = 16;
+
+    private final ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService cpu;
+    private final Semaphore inFlight;
+
+    /**
+     * Створює завантажувач з обчислювальним пулом на всі доступні ядра.
+     */
+    public BulkLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Створює завантажувач з обчислювальним пулом заданого розміру.
+     *
+     * @param parallelism - кількість потоків для переведення чисел
+     */
+    public BulkLoader(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.cpu = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "number-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.inFlight = new Semaphore(parallelism * IN_FLIGHT_PER_THREAD);
+    }
+
+
+    /**
+     * Завантажує число з файлу асинхронно. Журнал поруч із файлом
+     * ({@link NumberListImpl#enableJournal}) відтворюється, як і в
+     * {@link NumberListImpl#NumberListImpl(java.io.File)}.
+     *
+     * @param file - файл з десятковим числом у першому рядку
+     * @return майбутній список; завершується винятком, якщо файл не прочитано
+     *         або він не містить коректного числа
+     */
+    public CompletableFuture<NumberListImpl> load(Path file) {
+        return CompletableFuture
+                .supplyAsync(() -> read(file), io)
+                .thenApplyAsync(line -> {
+                    try {
+                        NumberListImpl list = NumberListImpl.parse(line);
+                        Journal.replay(list, file.toFile());
+                        return list;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (NumberFormatException e) {
+                        NumberFormatException described = new NumberFormatException(file + ": " + e.getMessage());
+                        described.initCause(e);
+                        throw described;
+                    } finally {
+                        inFlight.release();
+                    }
+                }, cpu);
+    }
+
+
+    /**
+     * Завантажує числа з усіх файлів асинхронно.
+     *
+     * @param files - файли з десятковими числами
+     * @return майбутні списки в порядку файлів
+     */
+    public List<CompletableFuture<NumberListImpl>> loadAll(Collection<Path> files) {
+        List<CompletableFuture<NumberListImpl>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(load(file));
+        }
+        return futures;
+    }
+
+
+    /**
+     * Завантажує числа з файлів і повертає результати в порядку файлів,
+     * щойно кожен готовий; завантаження всіх файлів починається одразу.
+     *
+     * @param files - файли з десятковими числами
+     * @return потік результатів, кожен зі списком або з помилкою
+     */
+    public Stream<Result> stream(Collection<Path> files) {
+        List<Path> paths = new ArrayList<>(files);
+        List<CompletableFuture<NumberListImpl>> futures = loadAll(paths);
+        return Stream.iterate(0, i -> i < paths.size(), i -> i + 1)
+                .map(i -> Result.of(paths.get(i), futures.get(i)));
+    }
+
+
+    /**
+     * Завантажує числа з усіх звичайних файлів каталогу (без підкаталогів),
+     * упорядкованих за іменем. Журнали (<tt>*.journal</tt>) і тимчасові файли
+     * їх згортання (<tt>*.tmp</tt>) - не числа і пропускаються.
+     *
+     * @param directory - каталог з файлами чисел
+     * @return потік результатів, кожен зі списком або з помилкою
+     * @throws IOException якщо каталог не вдалося прочитати
+     */
+    public Stream<Result> loadDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(directory)) {
+            files = entries.filter(Files::isRegularFile).filter(BulkLoader::isNumberFile).sorted().toList();
+        }
+        return stream(files);
+    }
+
+
+    /**
+     * Завершує пули потоків; розпочаті завантаження доводяться до кінця.
+     */
+    @Override
+    public void close() {
+        io.close();
+        cpu.shutdown();
+    }
+
+    private static boolean isNumberFile(Path file) {
+        String name = file.getFileName().toString();
+        return !name.endsWith(Journal.SUFFIX) && !name.endsWith(".tmp");
+    }
+
+    // Читає перший рядок файлу у віртуальному потоці
+    private String read(Path file) {
+        inFlight.acquireUninterruptibly();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line = reader.readLine();
+            return line == null ? "" : line.trim();
+        } catch (IOException e) {
+            inFlight.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Результат завантаження одного файлу: список або помилка.
+     */
+    public static final class Result {
+        private final Path file;
+        private final NumberListImpl list;
+        private final Throwable error;
+
+        private Result(Path file, NumberListImpl list, Throwable error) {
+            this.file = file;
+            this.list = list;
+            this.error = error;
+        }
+
+        static Result of(Path file, CompletableFuture<NumberListImpl> future) {
+            try {
+                return new Result(file, future.join(), null);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    cause = cause.getCause();
+                }
+                return new Result(file, null, cause);
+            }
+        }
+
+        /**
+         * @return файл, з якого завантажувалось число
+         */
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * @return завантажений список або <tt>null</tt>, якщо сталася помилка
+         */
+        public NumberListImpl list() {
+            return list;
+        }
+
+        /**
+         * @return помилка завантаження або <tt>null</tt>
+         */
+        public Throwable error() {
+            return error;
+        }
+
+        /**
+         * @return <tt>true</tt>, якщо число завантажено
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Накопичувач суми у надлишковій формі зі збереженням переносів (carry-save).
+ * Кожен розряд може тимчасово перевищувати base - 1, тому додавання
+ * {@link #accumulate(NumberList)} лише складає цифри по розрядах без поширення
+ * переносів. Переноси поширюються одним проходом під час першого читання
+ * (<tt>get</tt>, <tt>size</tt>, <tt>toDecimalString</tt>, <tt>saveList</tt> тощо).
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public class CarrySaveAccumulator extends AbstractNumberList {
+
+    private static final int DEFAULT_BASE = 8; // вісімкова система
+
+    private final int base;
+    private final int maxPending; // скільки додавань вміщує int-розряд без переповнення
+    private int[] slots = new int[16]; // розряди від молодшого до старшого
+    private int length; // кількість задіяних розрядів
+    private int pending; // додавань після останньої нормалізації
+
+    /**
+     * Створює порожній накопичувач у вісімковій системі.
+     */
+    public CarrySaveAccumulator() {
+        this(DEFAULT_BASE);
+    }
+
+    /**
+     * Створює порожній накопичувач у заданій системі числення.
+     *
+     * @param base - основа системи числення, від 2 до 16
+     */
+    public CarrySaveAccumulator(int base) {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Base must be in range [2, 16]");
+        }
+        this.base = base;
+        // після нормалізації розряд менший за base, кожне додавання додає не більше base - 1
+        this.maxPending = (Integer.MAX_VALUE - base) / (base - 1);
+    }
+
+    /**
+     * Створює накопичувач, що починається зі значення списку.
+     *
+     * @param initial - початкове значення (у вісімковій системі)
+     */
+    public CarrySaveAccumulator(NumberList initial) {
+        this(initial instanceof NumberListImpl ? ((NumberListImpl) initial).base() : DEFAULT_BASE);
+        accumulate(initial);
+    }
+
+
+    /**
+     * Додає число до накопиченої суми без поширення переносів.
+     * Працює за O(addend.size()) незалежно від довжини суми.
+     *
+     * @param addend - доданок; його цифри мають бути меншими за основу
+     */
+    public void accumulate(NumberList addend) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        if (addend == this) {
+            accumulateDigits(toDigitArray());
+            return;
+        }
+
+        int count = addend.size();
+        if (count == 0) {
+            return;
+        }
+        if (addend instanceof NumberListImpl && ((NumberListImpl) addend).base() <= base) {
+            // цифри списку меншої або тієї ж основи гарантовано менші за base
+            prepareSlots(count);
+            int slot = count - 1;
+            for (Byte digit : addend) {
+                slots[slot--] += digit;
+            }
+        } else {
+            byte[] digits = new byte[count];
+            int i = 0;
+            for (Byte digit : addend) {
+                digits[i++] = checkDigit(digit);
+            }
+            accumulateDigits(digits);
+        }
+    }
+
+
+    /**
+     * Додає невід'ємне число типу <tt>long</tt> до накопиченої суми.
+     *
+     * @param value - невід'ємний доданок
+     */
+    public void accumulate(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + value);
+        }
+
+        int count = 1;
+        for (long rest = value / base; rest > 0; rest /= base) {
+            count++;
+        }
+        prepareSlots(count);
+        for (int slot = 0; value > 0; slot++) {
+            slots[slot] += (int) (value % base);
+            value /= base;
+        }
+    }
+
+
+    /**
+     * Повертає накопичену суму як звичайний список.
+     *
+     * @return новий <tt>NumberListImpl</tt> з тим самим значенням
+     */
+    public NumberListImpl toNumberList() {
+        byte[] digits = toDigitArray();
+        return NumberListImpl.fromDigits(base, digits, 0, digits.length);
+    }
+
+
+    // Додає цифри масиву (від старшої) у розряди
+    private void accumulateDigits(byte[] digits) {
+        if (digits.length == 0) {
+            return;
+        }
+        prepareSlots(digits.length);
+        for (int i = 0, slot = digits.length - 1; slot >= 0; i++, slot--) {
+            slots[slot] += digits[i];
+        }
+    }
+
+    // Готує count розрядів до чергового додавання
+    private void prepareSlots(int count) {
+        if (pending >= maxPending) {
+            normalize();
+        }
+        ensureCapacity(count);
+        if (count > length) {
+            length = count;
+        }
+        pending++;
+        modified();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > slots.length) {
+            int[] larger = new int[Math.max(capacity, slots.length * 2)];
+            System.arraycopy(slots, 0, larger, 0, length);
+            slots = larger;
+        }
+    }
+
+    // Поширює відкладені переноси, після чого кожен розряд менший за base
+    private void normalize() {
+        if (pending == 0) {
+            return;
+        }
+
+        long carry = 0;
+        for (int i = 0; i < length; i++) {
+            long value = slots[i] + carry;
+            slots[i] = (int) (value % base);
+            carry = value / base;
+        }
+        while (carry > 0) {
+            ensureCapacity(length + 1);
+            slots[length++] = (int) (carry % base);
+            carry /= base;
+        }
+        pending = 0;
+    }
+
+
+    @Override
+    int base() {
+        return base;
+    }
+
+    @Override
+    public int size() {
+        normalize();
+        return length;
+    }
+
+    @Override
+    byte digitAt(int index) {
+        normalize();
+        return (byte) slots[length - 1 - index];
+    }
+
+    @Override
+    void setDigitAt(int index, byte digit) {
+        normalize();
+        slots[length - 1 - index] = digit;
+    }
+
+    @Override
+    void insertDigitAt(int index, byte digit) {
+        normalize();
+        ensureCapacity(length + 1);
+        int slot = length - index; // розряд нової цифри
+        System.arraycopy(slots, slot, slots, slot + 1, length - slot);
+        slots[slot] = digit;
+        length++;
+    }
+
+    @Override
+    byte removeDigitAt(int index) {
+        normalize();
+        int slot = length - 1 - index;
+        byte removed = (byte) slots[slot];
+        System.arraycopy(slots, slot + 1, slots, slot, length - 1 - slot);
+        length--;
+        slots[length] = 0;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < length; i++) {
+            slots[i] = 0;
+        }
+        length = 0;
+        pending = 0;
+        modified();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Подія Java Flight Recorder про переведення числа між системами числення.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+@Name("ua.kpi.comsys.test2.Conversion")
+@Label("Number Conversion")
+@Category({"NumberList", "Conversion"})
+@Description("Conversion of a number between scales of notation")
+final class ConversionEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Source Base")
+    int sourceBase;
+
+    @Label("Target Base")
+    int targetBase;
+
+    @Label("Source Digits")
+    long sourceDigits;
+
+    @Label("Result Digits")
+    long resultDigits;
+}
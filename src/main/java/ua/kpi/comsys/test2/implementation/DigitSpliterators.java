@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Сплітератори цифр для послідовної та паралельної обробки списків потоками.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class DigitSpliterators {
+
+    /**
+     * Менші діапазони не діляться: накладні витрати паралелізму переважать виграш.
+     */
+    static final int MIN_SPLIT = 1024;
+
+    static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED
+            | Spliterator.SUBSIZED | Spliterator.NONNULL;
+
+    private DigitSpliterators() {
+    }
+
+    /**
+     * Обгортає примітивний сплітератор цифр у сплітератор об'єктів <tt>Byte</tt>.
+     */
+    static Spliterator<Byte> boxed(Spliterator.OfInt digits) {
+        return new Boxed(digits);
+    }
+
+    // Сплітератор Byte поверх примітивного; ділиться так само, як і він
+    private static final class Boxed implements Spliterator<Byte> {
+        private final Spliterator.OfInt digits;
+
+        Boxed(Spliterator.OfInt digits) {
+            this.digits = digits;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Byte> action) {
+            return digits.tryAdvance((IntConsumer) digit -> action.accept((byte) digit));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Byte> action) {
+            digits.forEachRemaining((IntConsumer) digit -> action.accept((byte) digit));
+        }
+
+        @Override
+        public Spliterator<Byte> trySplit() {
+            Spliterator.OfInt prefix = digits.trySplit();
+            return prefix == null ? null : new Boxed(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return digits.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return digits.characteristics();
+        }
+    }
+
+    // Сплітератор за індексами для списків з довільним доступом
+    static final class Indexed implements Spliterator.OfInt {
+        private final AbstractNumberList list;
+        private int index;
+        private int fence; // -1, доки межу не прив'язано до розміру списку
+        private int expectedModCount;
+
+        Indexed(AbstractNumberList list) {
+            this(list, 0, -1, 0);
+        }
+
+        private Indexed(AbstractNumberList list, int index, int fence, int expectedModCount) {
+            this.list = list;
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = list.modCount;
+                fence = list.size();
+            }
+            return fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int lo = index;
+            int hi = getFence();
+            if (hi - lo < 2 * MIN_SPLIT) {
+                return null;
+            }
+            int mid = (lo + hi) >>> 1;
+            index = mid;
+            return new Indexed(list, lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            action.accept(list.digitAt(index++));
+            if (list.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int hi = getFence();
+            for (; index < hi; index++) {
+                action.accept(list.digitAt(index));
+            }
+            if (list.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
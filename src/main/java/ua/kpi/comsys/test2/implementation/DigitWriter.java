@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Записує цифри як символи в {@link Appendable} або {@link WritableByteChannel}
+ * через буфер фіксованого розміру, не збираючи весь рядок у пам'яті.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class DigitWriter implements RadixConverter.DigitSink {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final Appendable out;
+    private final WritableByteChannel channel;
+    private final char[] chars;
+    private final ByteBuffer bytes;
+    private int count; // заповнено символів у chars
+
+    DigitWriter(Appendable out) {
+        this.out = out;
+        this.channel = null;
+        this.chars = new char[BUFFER_SIZE];
+        this.bytes = null;
+    }
+
+    DigitWriter(WritableByteChannel channel) {
+        this.out = null;
+        this.channel = channel;
+        this.chars = null;
+        this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    void digit(int digit) throws IOException {
+        char c = Character.forDigit(digit, Character.MAX_RADIX);
+        if (chars != null) {
+            if (count == chars.length) {
+                flush();
+            }
+            chars[count++] = c;
+        } else {
+            if (!bytes.hasRemaining()) {
+                flush();
+            }
+            bytes.put((byte) c);
+        }
+    }
+
+    @Override
+    public void accept(byte[] digits, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            digit(digits[i]);
+        }
+    }
+
+    // Віддає накопичені символи адресату
+    void flush() throws IOException {
+        if (chars != null) {
+            if (count > 0) {
+                if (out instanceof Writer) {
+                    ((Writer) out).write(chars, 0, count);
+                } else {
+                    out.append(CharBuffer.wrap(chars, 0, count));
+                }
+                count = 0;
+            }
+        } else {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Список цифр, що зберігається у файлі й відображається в пам'ять вікнами
+ * фіксованого розміру. Одночасно відображено лише кілька вікон; найдавніше
+ * використане вікно звільняється, коли потрібне нове, тож число може бути
+ * більшим за доступну пам'ять. Цифри упаковано по дві в байт, від старшої до молодшої.<p>
+ *
+ * Вікно відображає лише ту частину файлу, що вже використовується, і лише для
+ * читання, доки в нього нічого не пишуть; тож відкриття не збільшує файл, а файл
+ * без права на запис можна відкрити для читання.<p>
+ *
+ * Формат файлу: заголовок (магічне число, основа, кількість цифр), далі упаковані цифри.
+ * Послідовні операції ({@link #add(FileBackedNumberList, Path)}, {@link #compareTo(FileBackedNumberList)},
+ * дописування в кінець) проходять файл по порядку і не потребують пам'яті,
+ * пропорційної довжині числа. Вставка та видалення всередині зсувають хвіст файлу.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public class FileBackedNumberList extends AbstractNumberList implements AutoCloseable {
+
+    private static final int MAGIC = 0x4E4C4631; // "NLF1"
+    private static final int HEADER_BYTES = 16; // magic:int, base:int, count:long
+    private static final int DEFAULT_WINDOW_BYTES = 1 << 24; // 16 МБ
+    private static final int DEFAULT_MAX_WINDOWS = 4;
+    private static final long MIN_MAP_BYTES = 1 << 12; // вікно для запису росте від 4 КБ удвічі
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int base;
+    private final long windowBytes;
+    private final Window[] windows;
+    private final boolean deleteOnClose;
+    private final boolean readOnly; // канал відкрито лише для читання
+    private Window recent; // останнє використане вікно
+    private long count; // кількість цифр
+    private long tick; // лічильник звернень для LRU
+    private boolean closed;
+
+    // Відображена в пам'ять ділянка файлу
+    private static final class Window {
+        final long index;
+        final Arena arena;
+        final MemorySegment segment; // від початку вікна до кінця відображеної ділянки
+        final boolean writable;
+        long lastUse;
+
+        Window(long index, Arena arena, MemorySegment segment, boolean writable) {
+            this.index = index;
+            this.arena = arena;
+            this.segment = segment;
+            this.writable = writable;
+        }
+
+        boolean covers(long local, boolean write) {
+            return local < segment.byteSize() && (writable || !write);
+        }
+    }
+
+    private FileBackedNumberList(Path file, FileChannel channel, int base, long count,
+                                 int windowBytes, int maxWindows, boolean deleteOnClose, boolean readOnly) {
+        this.file = file;
+        this.channel = channel;
+        this.base = base;
+        this.count = count;
+        this.windowBytes = windowBytes;
+        this.windows = new Window[maxWindows];
+        this.deleteOnClose = deleteOnClose;
+        this.readOnly = readOnly;
+    }
+
+
+    /**
+     * Створює новий порожній список у файлі (наявний файл перезаписується).
+     *
+     * @param file - файл для зберігання цифр
+     * @param base - основа системи числення, від 2 до 16
+     * @return відкритий список
+     * @throws IOException якщо файл не вдалося створити
+     */
+    public static FileBackedNumberList create(Path file, int base) throws IOException {
+        return create(file, base, DEFAULT_WINDOW_BYTES, DEFAULT_MAX_WINDOWS, false);
+    }
+
+    static FileBackedNumberList create(Path file, int base, int windowBytes, int maxWindows,
+                                       boolean deleteOnClose) throws IOException {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Base must be in range [2, 16]");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        FileBackedNumberList list = new FileBackedNumberList(file, channel, base, 0,
+                windowBytes, maxWindows, deleteOnClose, false);
+        list.writeHeader();
+        return list;
+    }
+
+    /**
+     * Відкриває список, раніше збережений у файлі. Файл без права на запис
+     * відкривається лише для читання: зміна такого списку кидає
+     * <tt>UnsupportedOperationException</tt>.
+     *
+     * @param file - файл, створений {@link #create(Path, int)}
+     * @return відкритий список
+     * @throws IOException якщо файл не вдалося прочитати або він має інший формат
+     */
+    public static FileBackedNumberList open(Path file) throws IOException {
+        return open(file, DEFAULT_WINDOW_BYTES, DEFAULT_MAX_WINDOWS);
+    }
+
+    static FileBackedNumberList open(Path file, int windowBytes, int maxWindows) throws IOException {
+        boolean readOnly = !Files.isWritable(file);
+        FileChannel channel = readOnly ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // читаємо заголовок повністю
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a number list file: " + file);
+            }
+            int base = header.getInt();
+            long count = header.getLong();
+            if (base < 2 || base > 16 || count < 0) {
+                throw new IOException("Corrupted number list header: " + file);
+            }
+            return new FileBackedNumberList(file, channel, base, count, windowBytes, maxWindows, false, readOnly);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Копіює цифри списку у новий файл.
+     *
+     * @param source - список, цифри якого копіюються (у вісімковій системі, якщо основа невідома)
+     * @param file - файл для зберігання цифр
+     * @return відкритий список
+     * @throws IOException якщо файл не вдалося створити
+     * @throws IllegalArgumentException якщо цифра джерела null або поза основою; файл тоді видаляється
+     */
+    public static FileBackedNumberList copyOf(NumberList source, Path file) throws IOException {
+        int base = source instanceof NumberListImpl ? ((NumberListImpl) source).base()
+                : source instanceof AbstractNumberList ? ((AbstractNumberList) source).base() : 8;
+        FileBackedNumberList list = create(file, base);
+        try {
+            for (Byte digit : source) {
+                list.append(list.checkDigit(digit));
+            }
+            return list;
+        } catch (RuntimeException e) {
+            // недокопійований список не повертається: звільняємо канал і вікна та видаляємо файл
+            try {
+                list.close();
+                Files.deleteIfExists(file);
+            } catch (IOException | RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * Дописує цифру в кінець числа (молодший розряд) без обмеження на
+     * <tt>Integer.MAX_VALUE</tt> цифр.
+     *
+     * @param digit - цифра, менша за основу
+     */
+    public void append(byte digit) {
+        checkDigit(digit);
+        setDigit(count, digit);
+        count++;
+        modified();
+    }
+
+    /**
+     * Повертає кількість цифр, яка може перевищувати <tt>Integer.MAX_VALUE</tt>.
+     *
+     * @return кількість цифр
+     */
+    public long digitCount() {
+        return count;
+    }
+
+    /**
+     * Повертає цифру за позицією, яка може перевищувати <tt>Integer.MAX_VALUE</tt>.
+     *
+     * @param position - позиція від старшої цифри
+     * @return цифра
+     */
+    public byte digit(long position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + count);
+        }
+        return readDigit(position);
+    }
+
+
+    /**
+     * Порівнює значення двох чисел (провідні нулі не враховуються),
+     * проходячи обидва файли від старших цифр.
+     *
+     * @param other - друге число тієї ж основи
+     * @return від'ємне, нуль або додатне число, як у {@link Comparable}
+     * @throws IllegalArgumentException якщо основи чисел різні
+     */
+    public int compareTo(FileBackedNumberList other) {
+        if (other.base != base) {
+            throw new IllegalArgumentException("Bases differ: " + base + " and " + other.base);
+        }
+        long i = firstSignificant();
+        long j = other.firstSignificant();
+        long length = count - i;
+        long otherLength = other.count - j;
+        if (length != otherLength) {
+            return Long.compare(length, otherLength);
+        }
+        for (; i < count; i++, j++) {
+            int difference = readDigit(i) - other.readDigit(j);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Додає два числа, записуючи суму в новий файл. Обидва доданки читаються
+     * послідовно від молодших цифр, сума пишеться так само.
+     *
+     * @param other - друге число тієї ж основи
+     * @param target - файл для суми
+     * @return відкритий список із сумою
+     * @throws IOException якщо файл не вдалося створити
+     */
+    public FileBackedNumberList add(FileBackedNumberList other, Path target) throws IOException {
+        return add(other, target, false);
+    }
+
+    private FileBackedNumberList add(FileBackedNumberList other, Path target, boolean temporary) throws IOException {
+        if (other.base != base) {
+            throw new IllegalArgumentException("Bases differ: " + base + " and " + other.base);
+        }
+
+        // перенос зі старшого розряду визначається першою зліва позицією, де сума цифр
+        // не дорівнює base - 1, тому довжину результату знаємо до основного проходу
+        long length = Math.max(count, other.count);
+        boolean carryOut = false;
+        for (long position = 0; position < length; position++) {
+            int sum = digitFromRight(length - 1 - position) + other.digitFromRight(length - 1 - position);
+            if (sum != base - 1) {
+                carryOut = sum >= base;
+                break;
+            }
+        }
+
+        FileBackedNumberList result = create(target, base, (int) windowBytes, windows.length, temporary);
+        long resultLength = length + (carryOut ? 1 : 0);
+        result.count = resultLength;
+
+        int carry = 0;
+        for (long k = 0; k < length; k++) {
+            int sum = digitFromRight(k) + other.digitFromRight(k) + carry;
+            carry = sum / base;
+            result.setDigit(resultLength - 1 - k, (byte) (sum % base));
+        }
+        if (carryOut) {
+            result.setDigit(0, (byte) carry);
+        }
+        result.modified();
+        return result;
+    }
+
+
+    /**
+     * Додавання двох чисел. Не змінює поточний список та аргумент.
+     * Сума зберігається в тимчасовому файлі поруч із поточним, який
+     * видаляється під час закриття результату.
+     *
+     * @param arg - друге число для додавання
+     * @return результат додавання
+     */
+    public FileBackedNumberList additionalOperation(NumberList arg) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (arg instanceof FileBackedNumberList) {
+                return add((FileBackedNumberList) arg, Files.createTempFile(directory, "sum", ".nl"), true);
+            }
+
+            Path copy = Files.createTempFile(directory, "arg", ".nl");
+            try (FileBackedNumberList other = copyOf(arg, copy)) {
+                return add(other, Files.createTempFile(directory, "sum", ".nl"), true);
+            } finally {
+                Files.deleteIfExists(copy);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Записує відображені вікна та заголовок на диск.
+     */
+    public void flush() {
+        checkOpen();
+        if (readOnly) {
+            return;
+        }
+        for (Window window : windows) {
+            if (window != null && window.writable) {
+                window.segment.force();
+            }
+        }
+        writeHeader();
+    }
+
+
+    /**
+     * Записує зміни, звільняє відображення та закриває файл.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+            for (int i = 0; i < windows.length; i++) {
+                unmap(i);
+            }
+            if (!readOnly) {
+                channel.truncate(HEADER_BYTES + (count + 1) / 2);
+            }
+            channel.close();
+            closed = true;
+            if (deleteOnClose) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    @Override
+    int base() {
+        return base;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    byte digitAt(int index) {
+        return readDigit(index);
+    }
+
+    @Override
+    void setDigitAt(int index, byte digit) {
+        setDigit(index, digit);
+    }
+
+    @Override
+    void insertDigitAt(int index, byte digit) {
+        // зсуваємо хвіст на одну позицію вправо, рухаючись з кінця
+        for (long i = count; i > index; i--) {
+            setDigit(i, readDigit(i - 1));
+        }
+        setDigit(index, digit);
+        count++;
+    }
+
+    @Override
+    byte removeDigitAt(int index) {
+        checkWritable();
+        byte removed = readDigit(index);
+        for (long i = index; i < count - 1; i++) {
+            setDigit(i, readDigit(i + 1));
+        }
+        count--;
+        return removed;
+    }
+
+    @Override
+    public boolean add(Byte e) {
+        append(checkDigit(e));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        checkWritable();
+        count = 0;
+        modified();
+    }
+
+
+    // Цифра на відстані k від молодшої; за межами числа - 0
+    private int digitFromRight(long k) {
+        return k < count ? readDigit(count - 1 - k) : 0;
+    }
+
+    private long firstSignificant() {
+        long i = 0;
+        while (i < count - 1 && readDigit(i) == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private byte readDigit(long position) {
+        long offset = position >>> 1;
+        long local = offset % windowBytes;
+        Window window = window(offset / windowBytes, local, false);
+        byte packed = window.segment.get(ValueLayout.JAVA_BYTE, local);
+        return (byte) ((position & 1) == 0 ? (packed >>> 4) & 0x0F : packed & 0x0F);
+    }
+
+    private void setDigit(long position, byte digit) {
+        long offset = position >>> 1;
+        long local = offset % windowBytes;
+        Window window = window(offset / windowBytes, local, true);
+        byte packed = window.segment.get(ValueLayout.JAVA_BYTE, local);
+        packed = (position & 1) == 0
+                ? (byte) ((packed & 0x0F) | (digit << 4))
+                : (byte) ((packed & 0xF0) | digit);
+        window.segment.set(ValueLayout.JAVA_BYTE, local, packed);
+    }
+
+    // Повертає вікно з номером index, що містить байт local (для запису, якщо write),
+    // відображаючи його замість найдавніше використаного
+    private Window window(long index, long local, boolean write) {
+        Window window = recent;
+        if (window != null && window.index == index && window.covers(local, write)) {
+            return window;
+        }
+        checkOpen();
+        if (write) {
+            checkWritable();
+        }
+
+        int victim = 0;
+        for (int i = 0; i < windows.length; i++) {
+            if (windows[i] != null && windows[i].index == index) {
+                if (windows[i].covers(local, write)) {
+                    windows[i].lastUse = ++tick;
+                    recent = windows[i];
+                    return recent;
+                }
+                // вікно замале або лише для читання - відображаємо його заново
+                victim = i;
+                break;
+            }
+            if (windows[i] == null || (windows[victim] != null && windows[i].lastUse < windows[victim].lastUse)) {
+                victim = i;
+            }
+        }
+
+        Window previous = windows[victim] != null && windows[victim].index == index ? windows[victim] : null;
+        boolean writable = write || (previous != null && previous.writable);
+        long grown = previous != null ? 2 * previous.segment.byteSize() : MIN_MAP_BYTES;
+        unmap(victim);
+        Arena arena = Arena.ofShared();
+        try {
+            long start = HEADER_BYTES + index * windowBytes;
+            long bytes = Math.min(windowBytes, channel.size() - start);
+            if (writable) {
+                // відображення для запису подовжує файл, тому росте поступово
+                bytes = Math.min(windowBytes, Math.max(Math.max(bytes, local + 1), grown));
+            } else if (local >= bytes) {
+                throw new IOException("Number list file is truncated: " + file);
+            }
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            MemorySegment segment = channel.map(mode, start, bytes, arena);
+            windows[victim] = new Window(index, arena, segment, writable);
+        } catch (IOException e) {
+            arena.close();
+            throw new UncheckedIOException(e);
+        }
+        windows[victim].lastUse = ++tick;
+        recent = windows[victim];
+        return recent;
+    }
+
+    private void unmap(int slot) {
+        Window window = windows[slot];
+        if (window != null) {
+            if (window.writable) {
+                window.segment.force();
+            }
+            window.arena.close();
+            windows[slot] = null;
+            if (recent == window) {
+                recent = null;
+            }
+        }
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(base).putLong(count).flip();
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("List is read-only: " + file);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("List is closed");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Подія Java Flight Recorder про читання або запис числа у файл.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+@Name("ua.kpi.comsys.test2.FileIo")
+@Label("Number File I/O")
+@Category({"NumberList", "File I/O"})
+@Description("Loading or saving a number in decimal notation")
+final class FileIoEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Digits")
+    long digits;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Список цифр для редагування навколо курсора: масив байтів з "дірою"
+ * (gap buffer). Цифри зберігаються в buffer[0..gapStart) і
+ * buffer[gapEnd..length), а курсор - це початок дірки. Вставка і видалення
+ * біля курсора коштують O(1), переміщення курсора - пропорційно відстані,
+ * доступ за індексом - O(1). Операції {@link java.util.List} за індексом
+ * переносять курсор на місце правки, тож серія локальних правок через
+ * <tt>add(int, Byte)</tt> і <tt>remove(int)</tt> теж амортизовано O(1).
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public class GapBufferNumberList extends AbstractNumberList {
+
+    private static final int DEFAULT_BASE = 8; // вісімкова система
+    private static final int ALTERNATIVE_BASE = 10; // десяткова система
+    private static final int MIN_GAP = 16;
+
+    private final int base;
+    private byte[] buffer;
+    private int gapStart; // курсор
+    private int gapEnd;
+
+    /**
+     * Створює порожній список у вісімковій системі.
+     */
+    public GapBufferNumberList() {
+        this(DEFAULT_BASE);
+    }
+
+    /**
+     * Створює порожній список у заданій системі числення.
+     *
+     * @param base - основа системи числення, від 2 до 16
+     */
+    public GapBufferNumberList(int base) {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Base must be in range [2, 16]");
+        }
+        this.base = base;
+        this.buffer = new byte[MIN_GAP];
+        this.gapEnd = buffer.length;
+    }
+
+    /**
+     * Створює список з цифр іншого списку (у його системі числення, якщо
+     * вона відома, інакше у вісімковій). Курсор стає в кінець.
+     * Цифри <tt>NumberListImpl</tt> копіюються одним проходом.
+     *
+     * @param source - список, цифри якого копіюються
+     */
+    public GapBufferNumberList(NumberList source) {
+        this(source instanceof NumberListImpl ? ((NumberListImpl) source).base()
+                : source instanceof AbstractNumberList ? ((AbstractNumberList) source).base() : DEFAULT_BASE);
+        byte[] digits;
+        if (source instanceof NumberListImpl) {
+            digits = ((NumberListImpl) source).toDigitArray();
+        } else if (source instanceof AbstractNumberList) {
+            digits = ((AbstractNumberList) source).toDigitArray();
+        } else {
+            digits = new byte[source.size()];
+            int i = 0;
+            for (Byte digit : source) {
+                digits[i++] = checkDigit(digit);
+            }
+        }
+        wrap(digits, 0, digits.length);
+    }
+
+    /**
+     * Constructs new <tt>GapBufferNumberList</tt> by <b>decimal</b> number
+     * in string notation. Incorrect number produces empty list.
+     *
+     * @param value - number in string notation.
+     */
+    public GapBufferNumberList(String value) {
+        this(new NumberListImpl(value));
+    }
+
+    // Список з цифр digits[from..to), курсор у кінці
+    static GapBufferNumberList fromDigits(int base, byte[] digits, int from, int to) {
+        GapBufferNumberList list = new GapBufferNumberList(base);
+        list.wrap(digits, from, to);
+        return list;
+    }
+
+    // Одна копія цифр із запасом під дірку
+    private void wrap(byte[] digits, int from, int to) {
+        int length = to - from;
+        buffer = Arrays.copyOfRange(digits, from, to + Math.max(MIN_GAP, length >> 3));
+        gapStart = length;
+        gapEnd = buffer.length;
+    }
+
+
+    /**
+     * Копія цифр у звичайному списку <tt>NumberListImpl</tt> тієї ж системи числення.
+     *
+     * @return новий список
+     */
+    public NumberListImpl toNumberListImpl() {
+        return NumberListImpl.fromDigits(base, toDigitArray(), 0, size());
+    }
+
+
+    /**
+     * Повертає позицію курсора: кількість цифр перед ним.
+     *
+     * @return позиція від 0 до size()
+     */
+    public int cursor() {
+        return gapStart;
+    }
+
+
+    /**
+     * Переносить курсор на задану позицію; коштує пропорційно відстані.
+     *
+     * @param position - нова позиція від 0 до size()
+     * @throws IndexOutOfBoundsException якщо позиція поза списком
+     */
+    public void moveCursor(int position) {
+        checkPositionIndex(position);
+        moveGap(position);
+    }
+
+
+    /**
+     * Вставляє цифру перед курсором; курсор стає після неї.
+     *
+     * @param digit - цифра, менша за основу
+     */
+    public void insert(byte digit) {
+        insertDigitAt(gapStart, checkDigit(digit));
+        modified();
+    }
+
+
+    /**
+     * Замінює цифру після курсора; курсор стає після неї.
+     *
+     * @param digit - цифра, менша за основу
+     * @return замінена цифра
+     * @throws NoSuchElementException якщо курсор у кінці
+     */
+    public byte overwrite(byte digit) {
+        checkDigit(digit);
+        if (gapEnd == buffer.length) {
+            throw new NoSuchElementException("Cursor is at the end");
+        }
+        byte old = buffer[gapEnd];
+        buffer[gapEnd++] = digit;
+        buffer[gapStart++] = digit;
+        modified();
+        return old;
+    }
+
+
+    /**
+     * Видаляє цифру перед курсором (як Backspace).
+     *
+     * @return видалена цифра
+     * @throws NoSuchElementException якщо курсор на початку
+     */
+    public byte deleteBackward() {
+        if (gapStart == 0) {
+            throw new NoSuchElementException("Cursor is at the beginning");
+        }
+        modified();
+        return buffer[--gapStart];
+    }
+
+
+    /**
+     * Видаляє цифру після курсора (як Delete).
+     *
+     * @return видалена цифра
+     * @throws NoSuchElementException якщо курсор у кінці
+     */
+    public byte deleteForward() {
+        if (gapEnd == buffer.length) {
+            throw new NoSuchElementException("Cursor is at the end");
+        }
+        modified();
+        return buffer[gapEnd++];
+    }
+
+
+    /**
+     * Переведення числа у десяткову систему числення.
+     * Не змінює поточний список.
+     *
+     * @return новий список у десятковій системі
+     */
+    public GapBufferNumberList changeScale() {
+        byte[] digits = isEmpty()
+                ? new byte[1]
+                : RadixConverter.convert(toDigitArray(), 0, size(), base, ALTERNATIVE_BASE);
+        return fromDigits(ALTERNATIVE_BASE, digits, 0, digits.length);
+    }
+
+
+    /**
+     * Додавання двох чисел. Не змінює поточний список та аргумент.
+     *
+     * @param arg - друге число для додавання
+     * @return результат додавання у новому списку
+     */
+    public GapBufferNumberList additionalOperation(NumberList arg) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        NumberListImpl sum = toNumberListImpl();
+        sum.addInPlace(arg);
+        return fromDigits(base, sum.toDigitArray(), 0, sum.size());
+    }
+
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "0";
+        }
+
+        StringBuilder sb = new StringBuilder(size());
+        for (int i = 0; i < gapStart; i++) {
+            sb.append(Character.forDigit(buffer[i], Character.MAX_RADIX));
+        }
+        for (int i = gapEnd; i < buffer.length; i++) {
+            sb.append(Character.forDigit(buffer[i], Character.MAX_RADIX));
+        }
+        return sb.toString();
+    }
+
+
+    @Override
+    public void clear() {
+        gapStart = 0;
+        gapEnd = buffer.length;
+        modified();
+    }
+
+
+    @Override
+    int base() {
+        return base;
+    }
+
+    @Override
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    byte[] toDigitArray() {
+        byte[] digits = new byte[size()];
+        System.arraycopy(buffer, 0, digits, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, digits, gapStart, buffer.length - gapEnd);
+        return digits;
+    }
+
+    @Override
+    byte digitAt(int index) {
+        return buffer[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    @Override
+    void setDigitAt(int index, byte digit) {
+        buffer[index < gapStart ? index : index + gapEnd - gapStart] = digit;
+    }
+
+    @Override
+    void insertDigitAt(int index, byte digit) {
+        moveGap(index);
+        if (gapStart == gapEnd) {
+            grow();
+        }
+        buffer[gapStart++] = digit;
+    }
+
+    @Override
+    byte removeDigitAt(int index) {
+        moveGap(index);
+        return buffer[gapEnd++];
+    }
+
+    // Переносить дірку так, щоб вона починалася з позиції position
+    private void moveGap(int position) {
+        if (position < gapStart) {
+            int count = gapStart - position;
+            System.arraycopy(buffer, position, buffer, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (position > gapStart) {
+            int count = position - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    // Збільшує дірку пропорційно розміру, щоб вставки були амортизовано O(1)
+    private void grow() {
+        int size = size();
+        int gap = Math.max(MIN_GAP, size >> 1);
+        byte[] larger = new byte[size + gap];
+        int tail = buffer.length - gapEnd;
+        System.arraycopy(buffer, 0, larger, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, larger, larger.length - tail, tail);
+        buffer = larger;
+        gapEnd = larger.length - tail;
+    }
+}
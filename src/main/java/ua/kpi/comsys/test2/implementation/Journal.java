@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал змін списку для інкрементного збереження. Файл числа містить
+ * десятковий знімок (як після {@link NumberListImpl#saveList}), а файл
+ * <tt>&lt;ім'я&gt;.journal</tt> поруч - заголовок з відбитком знімка і
+ * пакети записів змін після нього. Кожна контрольна точка дописує лише
+ * накопичені записи одним пакетом з довжиною і CRC32, тож її вартість
+ * пропорційна кількості змін, а не довжині числа. Коли журнал переростає
+ * знімок, він згортається: знімок переписується, журнал очищується.<p>
+ *
+ * Під час завантаження пакети відтворюються по черзі; обірваний або
+ * пошкоджений пакет наприкінці (збій посеред запису) відкидається разом з
+ * усім, що йде за ним. Журнал з відбитком іншого знімка ігнорується.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class Journal {
+
+    static final String SUFFIX = ".journal";
+
+    private static final int MAGIC = 0x4E4C4A31; // "NLJ1"
+    private static final int HEADER_BYTES = 16; // magic, кількість цифр, відбиток
+    private static final long MIN_COMPACTION_BYTES = 1 << 16;
+
+    // коди записів
+    private static final int INSERT = 1; // позиція, цифра
+    private static final int SET = 2; // позиція, цифра
+    private static final int REMOVE = 3; // позиція
+    private static final int CLEAR = 4;
+    private static final int SHIFT_LEFT = 5;
+    private static final int SHIFT_RIGHT = 6;
+    private static final int ADD = 7; // кількість цифр, цифри
+    private static final int INCREMENT = 8; // значення
+    private static final int SORT_ASCENDING = 9;
+    private static final int SORT_DESCENDING = 10;
+    private static final int MULTIPLY = 11; // множник
+    private static final int DIVIDE = 12; // дільник
+    private static final int WIDTH = 13; // ширина регістра, 0 - не фіксована
+
+    final File file;
+    private final Path journalPath;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long journalBytes; // поточна довжина файлу журналу
+    private int suspended; // глибина операцій, що записуються одним логічним записом
+
+    private Journal(File file) {
+        this.file = file;
+        this.journalPath = sidecar(file);
+    }
+
+    static Path sidecar(File file) {
+        return new File(file.getPath() + SUFFIX).toPath();
+    }
+
+    /**
+     * Починає журнал для списку: записує знімок і порожній журнал.
+     */
+    static Journal start(NumberListImpl list, File file) throws IOException {
+        Journal journal = new Journal(file);
+        journal.compact(list);
+        return journal;
+    }
+
+
+    // ---- запис змін ----
+
+    void inserted(int position, byte digit) {
+        if (suspended == 0) {
+            pending.write(INSERT);
+            writeVarLong(pending, position);
+            pending.write(digit);
+        }
+    }
+
+    void replaced(int position, byte digit) {
+        if (suspended == 0) {
+            pending.write(SET);
+            writeVarLong(pending, position);
+            pending.write(digit);
+        }
+    }
+
+    void removed(int position) {
+        if (suspended == 0) {
+            pending.write(REMOVE);
+            writeVarLong(pending, position);
+        }
+    }
+
+    void cleared() {
+        if (suspended == 0) {
+            pending.reset(); // попередні зміни вже нічого не важать
+            pending.write(CLEAR);
+        }
+    }
+
+    void shifted(boolean left) {
+        if (suspended == 0) {
+            pending.write(left ? SHIFT_LEFT : SHIFT_RIGHT);
+        }
+    }
+
+    void added(byte[] digits) {
+        if (suspended == 0) {
+            pending.write(ADD);
+            writeVarLong(pending, digits.length);
+            pending.write(digits, 0, digits.length);
+        }
+    }
+
+    void incremented(long value) {
+        if (suspended == 0) {
+            pending.write(INCREMENT);
+            writeVarLong(pending, value);
+        }
+    }
+
+    void multiplied(long factor) {
+        if (suspended == 0) {
+            pending.write(MULTIPLY);
+            writeVarLong(pending, factor);
+        }
+    }
+
+    void divided(long divisor) {
+        if (suspended == 0) {
+            pending.write(DIVIDE);
+            writeVarLong(pending, divisor);
+        }
+    }
+
+    void widthFixed(int digits) {
+        if (suspended == 0) {
+            pending.write(WIDTH);
+            writeVarLong(pending, digits);
+        }
+    }
+
+    // Сортування записується одним записом, а його перестановки - ні
+    void sortStarted(boolean ascending) {
+        if (suspended == 0) {
+            pending.write(ascending ? SORT_ASCENDING : SORT_DESCENDING);
+        }
+        suspended++;
+    }
+
+    void sortFinished() {
+        suspended--;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+
+    // ---- файли ----
+
+    /**
+     * Дописує накопичені зміни одним пакетом; згортає журнал, якщо він
+     * переріс знімок.
+     *
+     * @return кількість записаних байтів
+     */
+    long checkpoint(NumberListImpl list) throws IOException {
+        if (pending.size() == 0) {
+            return 0;
+        }
+        if (journalBytes + pending.size() > Math.max(MIN_COMPACTION_BYTES, list.size() / 2)) {
+            return compact(list);
+        }
+
+        ByteBuffer frame = frame(pending.toByteArray());
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+        }
+        journalBytes += frame.limit();
+        pending.reset();
+        return frame.limit();
+    }
+
+    // Пакет: довжина, CRC32 і записи
+    private static ByteBuffer frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        return frame;
+    }
+
+    /**
+     * Переписує знімок і очищує журнал. Фіксована ширина регістра не
+     * видна в знімку, тож журнал починається з пакета, що її відновлює.
+     *
+     * @return кількість записаних байтів
+     */
+    long compact(NumberListImpl list) throws IOException {
+        Path snapshot = file.toPath().toAbsolutePath();
+        Path directory = snapshot.getParent();
+        Path snapshotTemp = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        Path journalTemp = Files.createTempFile(directory, journalPath.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(snapshotTemp, StandardCharsets.US_ASCII)) {
+                list.writeDecimalTo(writer);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(list.size()).putLong(list.residue(Residues.MERSENNE_61)).flip();
+            ByteBuffer width = ByteBuffer.allocate(0);
+            if (list.fixedWidth() > 0) {
+                ByteArrayOutputStream record = new ByteArrayOutputStream();
+                record.write(WIDTH);
+                writeVarLong(record, list.fixedWidth());
+                width = frame(record.toByteArray());
+            }
+            try (FileChannel channel = FileChannel.open(journalTemp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || width.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, width});
+                }
+                channel.force(false);
+            }
+            // спершу знімок: новий знімок зі старим журналом не збігається з відбитком,
+            // тож збій між двома переміщеннями не відтворить старі записи двічі
+            Files.move(snapshotTemp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(journalTemp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalBytes = HEADER_BYTES + width.limit();
+        } finally {
+            Files.deleteIfExists(snapshotTemp);
+            Files.deleteIfExists(journalTemp);
+        }
+        pending.reset();
+        return Files.size(snapshot) + journalBytes;
+    }
+
+    /**
+     * Відтворює журнал поруч із файлом на щойно завантаженому знімку.
+     * Пошкоджений хвіст і журнал чужого знімка пропускаються. Записи
+     * відтворюються на копії знімка, яку список переймає лише після успіху:
+     * якщо цілий за CRC32 пакет не застосовується (невідомий запис, позиція
+     * поза списком), журнал не узгоджується зі знімком і список лишається
+     * знімком.
+     *
+     * @return кількість відтворених пакетів
+     */
+    static int replay(NumberListImpl list, File file) throws IOException {
+        Path path = sidecar(file);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        int frames = 0;
+        byte[] snapshot = list.toDigitArray();
+        NumberListImpl replica = NumberListImpl.fromDigits(list.base(), snapshot, 0, snapshot.length);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readInt() != MAGIC) {
+                return 0;
+            }
+            int digits = in.readInt();
+            if (in.readLong() != replica.residue(Residues.MERSENNE_61) || !restoreLeadingZeros(replica, digits)) {
+                return 0;
+            }
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int expectedCrc = in.readInt();
+                byte[] payload = in.readNBytes(length);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (payload.length != length || (int) crc.getValue() != expectedCrc) {
+                    break; // обірваний або пошкоджений пакет
+                }
+                try {
+                    apply(replica, new ByteArrayInputStream(payload));
+                } catch (IOException | RuntimeException e) {
+                    return 0; // запис не застосовується до знімка - журнал відкидається повністю
+                }
+                frames++;
+            }
+        } catch (EOFException e) {
+            // обірваний заголовок пакета - відтворено все, що встигли записати
+        }
+        list.adopt(replica);
+        return frames;
+    }
+
+    // Десятковий знімок втрачає провідні нулі, а записи журналу адресують позиції цифр,
+    // тож відновлюємо точну довжину списку на момент знімка
+    private static boolean restoreLeadingZeros(NumberListImpl list, int digits) {
+        if (digits == 0 && list.size() == 1 && list.get(0) == 0) {
+            list.clear();
+            return true;
+        }
+        if (digits < list.size()) {
+            return false;
+        }
+        while (list.size() < digits) {
+            list.add(0, (byte) 0);
+        }
+        return true;
+    }
+
+    private static void apply(NumberListImpl list, InputStream in) throws IOException {
+        int code;
+        while ((code = in.read()) >= 0) {
+            switch (code) {
+                case INSERT:
+                    list.add((int) readVarLong(in), (byte) in.read());
+                    break;
+                case SET:
+                    list.set((int) readVarLong(in), (byte) in.read());
+                    break;
+                case REMOVE:
+                    list.remove((int) readVarLong(in));
+                    break;
+                case CLEAR:
+                    list.clear();
+                    break;
+                case SHIFT_LEFT:
+                    list.shiftLeft();
+                    break;
+                case SHIFT_RIGHT:
+                    list.shiftRight();
+                    break;
+                case ADD:
+                    byte[] digits = in.readNBytes((int) readVarLong(in));
+                    list.addInPlace(NumberListImpl.fromDigits(list.base(), digits, 0, digits.length));
+                    break;
+                case INCREMENT:
+                    list.incrementBy(readVarLong(in));
+                    break;
+                case MULTIPLY:
+                    list.multiplySmall(readVarLong(in));
+                    break;
+                case DIVIDE:
+                    list.divideSmall(readVarLong(in));
+                    break;
+                case WIDTH:
+                    int width = (int) readVarLong(in);
+                    if (width > 0) {
+                        list.enableFixedWidth(width);
+                    } else {
+                        list.disableFixedWidth();
+                    }
+                    break;
+                case SORT_ASCENDING:
+                    list.sortAscending();
+                    break;
+                case SORT_DESCENDING:
+                    list.sortDescending();
+                    break;
+                default:
+                    throw new IOException("Unknown journal entry " + code);
+            }
+        }
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
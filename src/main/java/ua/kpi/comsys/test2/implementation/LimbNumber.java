@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Незмінне натуральне число в "кінцях" (limbs) - розрядах з основою B = base^k,
+ * найбільшою степінню основи списку, що не перевищує 2^31. Цифри списку
+ * групуються в кінці без переведення між системами числення, а добутки двох
+ * кінців уміщуються в <tt>long</tt>. Кінці зберігаються від молодшого.<p>
+ *
+ * Множення - шкільне для коротких чисел і Карацуби для довгих. Ділення з
+ * остачею - алгоритм D Кнута для коротких дільників, рекурсивне ділення
+ * Бурнікеля-Циглера для середніх і множення на обернене число, знайдене
+ * ітераціями Ньютона, для дуже довгих, тож воно коштує кілька множень.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class LimbNumber implements Comparable<LimbNumber> {
+
+    // межі в кінцях; змінні, щоб тести могли перевірити всі гілки на коротких числах
+    static int karatsubaThreshold = 40;
+    static int burnikelZieglerThreshold = 40;
+    static int newtonThreshold = 2000;
+
+    private static final int[] ZERO = new int[0];
+
+    final int base; // основа цифр
+    final int digitsPerLimb; // k
+    final long limbBase; // B = base^k
+    final int[] mag; // кінці від молодшого, без старших нулів
+
+    private LimbNumber(int base, int digitsPerLimb, long limbBase, int[] mag) {
+        this.base = base;
+        this.digitsPerLimb = digitsPerLimb;
+        this.limbBase = limbBase;
+        this.mag = mag;
+    }
+
+    // Число з тими ж основами і кінцями magnitude
+    LimbNumber with(int[] magnitude) {
+        return new LimbNumber(base, digitsPerLimb, limbBase, magnitude);
+    }
+
+    /**
+     * Число з цифр digits[from..to) (від старшої) в основі base.
+     */
+    static LimbNumber fromDigits(int base, byte[] digits, int from, int to) {
+        int k = 0;
+        long limbBase = 1;
+        while (limbBase * base <= 1L << 31) {
+            limbBase *= base;
+            k++;
+        }
+
+        int[] mag = new int[(to - from + k - 1) / k];
+        for (int limb = 0, end = to; end > from; limb++, end -= k) {
+            int value = 0;
+            for (int i = Math.max(from, end - k); i < end; i++) {
+                value = value * base + digits[i];
+            }
+            mag[limb] = value;
+        }
+        return new LimbNumber(base, k, limbBase, trim(mag));
+    }
+
+    /**
+     * Невід'ємне число типу <tt>long</tt> в основі base.
+     */
+    static LimbNumber valueOf(int base, long value) {
+        LimbNumber zero = fromDigits(base, new byte[0], 0, 0);
+        int[] mag = new int[3]; // (2^63) < (2^30)^3 - вистачає для будь-якої основи
+        for (int i = 0; value > 0; i++) {
+            mag[i] = (int) (value % zero.limbBase);
+            value /= zero.limbBase;
+        }
+        return zero.with(trim(mag));
+    }
+
+    /**
+     * Цифри числа від старшої без провідних нулів; нуль - одна цифра 0.
+     */
+    byte[] toDigits() {
+        if (mag.length == 0) {
+            return new byte[1];
+        }
+
+        int top = mag[mag.length - 1];
+        int topDigits = 0;
+        for (int rest = top; rest > 0; rest /= base) {
+            topDigits++;
+        }
+        byte[] digits = new byte[topDigits + (mag.length - 1) * digitsPerLimb];
+        int end = digits.length;
+        for (int limb = 0; limb < mag.length; limb++) {
+            int width = limb == mag.length - 1 ? topDigits : digitsPerLimb;
+            int value = mag[limb];
+            for (int i = 0; i < width; i++) {
+                digits[--end] = (byte) (value % base);
+                value /= base;
+            }
+        }
+        return digits;
+    }
+
+    boolean isZero() {
+        return mag.length == 0;
+    }
+
+    @Override
+    public int compareTo(LimbNumber other) {
+        return compare(mag, other.mag);
+    }
+
+    LimbNumber add(LimbNumber other) {
+        return with(add(mag, other.mag, limbBase));
+    }
+
+    /**
+     * Різниця; зменшуване не менше за від'ємник.
+     */
+    LimbNumber subtract(LimbNumber other) {
+        return with(subtract(mag, other.mag, limbBase));
+    }
+
+    LimbNumber multiply(LimbNumber other) {
+        return with(multiply(mag, other.mag, limbBase));
+    }
+
+    /**
+     * Частка і остача.
+     *
+     * @throws ArithmeticException якщо дільник дорівнює нулю
+     */
+    LimbNumber[] divideAndRemainder(LimbNumber divisor) {
+        int[][] parts = divide(mag, divisor.mag, limbBase);
+        return new LimbNumber[] {with(parts[0]), with(parts[1])};
+    }
+
+
+    // ---- операції над масивами кінців ----
+
+    static int[] trim(int[] a) {
+        int length = a.length;
+        while (length > 0 && a[length - 1] == 0) {
+            length--;
+        }
+        return length == a.length ? a : Arrays.copyOf(a, length);
+    }
+
+    static int compare(int[] a, int[] b) {
+        if (a.length != b.length) {
+            return Integer.compare(a.length, b.length);
+        }
+        for (int i = a.length - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return Integer.compare(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    static int[] add(int[] a, int[] b, long base) {
+        if (a.length < b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        int[] result = Arrays.copyOf(a, a.length + 1);
+        addInto(result, b, 0, base);
+        return trim(result);
+    }
+
+    static int[] subtract(int[] a, int[] b, long base) {
+        int[] result = new int[a.length];
+        long borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            long d = a[i] - (i < b.length ? b[i] : 0) - borrow;
+            borrow = d < 0 ? 1 : 0;
+            result[i] = (int) (d + borrow * base);
+        }
+        return trim(result);
+    }
+
+    // Додає x * B^offset до r на місці; r має вміщувати результат
+    private static void addInto(int[] r, int[] x, int offset, long base) {
+        long carry = 0;
+        int i = 0;
+        for (; i < x.length; i++) {
+            long sum = r[offset + i] + (long) x[i] + carry;
+            carry = sum >= base ? 1 : 0;
+            r[offset + i] = (int) (sum - carry * base);
+        }
+        for (int k = offset + i; carry != 0; k++) {
+            long sum = r[k] + carry;
+            carry = sum >= base ? 1 : 0;
+            r[k] = (int) (sum - carry * base);
+        }
+    }
+
+    static int[] multiply(int[] a, int[] b, long base) {
+        if (a.length < b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        if (b.length == 0) {
+            return ZERO;
+        }
+        if (b.length < karatsubaThreshold) {
+            return multiplySchool(a, b, base);
+        }
+
+        int[] result = new int[a.length + b.length + 1];
+        if (b.length <= a.length / 2) {
+            // дуже різні довжини - множимо частини a довжини b
+            for (int offset = 0; offset < a.length; offset += b.length) {
+                addInto(result, multiply(slice(a, offset, offset + b.length), b, base), offset, base);
+            }
+            return trim(result);
+        }
+
+        // Карацуба: (a1 B^h + a0)(b1 B^h + b0) = z2 B^2h + z1 B^h + z0
+        int h = a.length / 2;
+        int[] a0 = slice(a, 0, h);
+        int[] a1 = slice(a, h, a.length);
+        int[] b0 = slice(b, 0, h);
+        int[] b1 = slice(b, h, b.length);
+        int[] z0 = multiply(a0, b0, base);
+        int[] z2 = multiply(a1, b1, base);
+        int[] z1 = subtract(multiply(add(a0, a1, base), add(b0, b1, base), base), add(z0, z2, base), base);
+        addInto(result, z0, 0, base);
+        addInto(result, z1, h, base);
+        addInto(result, z2, 2 * h, base);
+        return trim(result);
+    }
+
+    private static int[] multiplySchool(int[] a, int[] b, long base) {
+        // ділення на B - множенням на обернене з однією поправкою
+        long inverse = Long.divideUnsigned(-1L, base);
+        int[] result = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            if (ai == 0) {
+                continue;
+            }
+            long carry = 0;
+            for (int j = 0; j < b.length; j++) {
+                long t = ai * b[j] + result[i + j] + carry; // < B^2 <= 2^62
+                carry = Math.unsignedMultiplyHigh(t, inverse);
+                t -= carry * base;
+                if (t >= base) {
+                    carry++;
+                    t -= base;
+                }
+                result[i + j] = (int) t;
+            }
+            result[i + b.length] = (int) carry;
+        }
+        return trim(result);
+    }
+
+    // Добуток на m < B
+    static int[] multiplySmall(int[] a, long m, long base) {
+        int[] result = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long t = a[i] * m + carry;
+            carry = t / base;
+            result[i] = (int) (t - carry * base);
+        }
+        result[a.length] = (int) carry;
+        return trim(result);
+    }
+
+    // Частка від ділення на d < B; остача записується в remainder[0]
+    static int[] divideSmall(int[] a, long d, long base, long[] remainder) {
+        int[] quotient = new int[a.length];
+        long rest = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long current = rest * base + a[i];
+            quotient[i] = (int) (current / d);
+            rest = current % d;
+        }
+        remainder[0] = rest;
+        return trim(quotient);
+    }
+
+    // Кінці a[from..to) як окреме число
+    static int[] slice(int[] a, int from, int to) {
+        to = Math.min(to, a.length);
+        from = Math.min(from, to);
+        return trim(Arrays.copyOfRange(a, from, to));
+    }
+
+    // a * B^n
+    static int[] shiftUp(int[] a, int n) {
+        if (a.length == 0 || n == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + n];
+        System.arraycopy(a, 0, result, n, a.length);
+        return result;
+    }
+
+    // floor(a / B^n)
+    static int[] high(int[] a, int n) {
+        return slice(a, n, a.length);
+    }
+
+    // a mod B^n
+    static int[] low(int[] a, int n) {
+        return slice(a, 0, n);
+    }
+
+
+    // ---- ділення ----
+
+    static int[][] divide(int[] a, int[] b, long base) {
+        if (b.length == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (compare(a, b) < 0) {
+            return new int[][] {ZERO, a};
+        }
+        if (b.length < burnikelZieglerThreshold || a.length - b.length < burnikelZieglerThreshold) {
+            return divideSchool(a, b, base);
+        }
+        if (b.length >= newtonThreshold) {
+            return divideNewton(a, b, base);
+        }
+        return divideBurnikelZiegler(a, b, base);
+    }
+
+    // Ділення без рекурсії: на один кінець або алгоритм D Кнута
+    private static int[][] divideSchool(int[] a, int[] b, long base) {
+        if (compare(a, b) < 0) {
+            return new int[][] {ZERO, a};
+        }
+        if (b.length == 1) {
+            long[] remainder = new long[1];
+            int[] quotient = divideSmall(a, b[0], base, remainder);
+            return new int[][] {quotient, remainder[0] == 0 ? ZERO : new int[] {(int) remainder[0]}};
+        }
+
+        // нормалізація: старший кінець дільника не менший за B / 2
+        int n = b.length;
+        int m = a.length - n;
+        long d = base / (b[n - 1] + 1L);
+        int[] v = Arrays.copyOf(multiplySmall(b, d, base), n);
+        int[] u = Arrays.copyOf(multiplySmall(a, d, base), a.length + 1);
+        int[] q = new int[m + 1];
+        long vTop = v[n - 1];
+        long vNext = v[n - 2];
+
+        for (int j = m; j >= 0; j--) {
+            long numerator = u[j + n] * base + u[j + n - 1];
+            long qHat = numerator / vTop;
+            long rHat = numerator % vTop;
+            while (qHat >= base || qHat * vNext > rHat * base + u[j + n - 2]) {
+                qHat--;
+                rHat += vTop;
+                if (rHat >= base) {
+                    break;
+                }
+            }
+
+            // u[j..j+n] -= qHat * v
+            long borrow = 0;
+            long carry = 0;
+            for (int i = 0; i < n; i++) {
+                long p = qHat * v[i] + carry;
+                carry = p / base;
+                long t = u[i + j] - (p - carry * base) - borrow;
+                borrow = t < 0 ? 1 : 0;
+                u[i + j] = (int) (t + borrow * base);
+            }
+            long top = u[j + n] - carry - borrow;
+            while (top < 0) {
+                // qHat завеликий - повертаємо дільник назад
+                qHat--;
+                long c = 0;
+                for (int i = 0; i < n; i++) {
+                    long sum = u[i + j] + (long) v[i] + c;
+                    c = sum >= base ? 1 : 0;
+                    u[i + j] = (int) (sum - c * base);
+                }
+                top += c;
+            }
+            u[j + n] = (int) top;
+            q[j] = (int) qHat;
+        }
+
+        long[] unused = new long[1];
+        int[] remainder = divideSmall(trim(Arrays.copyOf(u, n)), d, base, unused);
+        return new int[][] {trim(q), remainder};
+    }
+
+    // Бурнікель-Циглер: дільник доповнюється до n = j * 2^k кінців, ділене ділиться блоками по n
+    private static int[][] divideBurnikelZiegler(int[] a, int[] b, long base) {
+        int s = b.length;
+        int m = Integer.highestOneBit(s / burnikelZieglerThreshold) << 1; // 2^k > s / поріг
+        int n = (s + m - 1) / m * m;
+        return divideBlocks(a, b, n, base, false);
+    }
+
+    // Ділення множенням на обернене число; обернене обчислюється раз для всіх блоків
+    private static int[][] divideNewton(int[] a, int[] b, long base) {
+        return divideBlocks(a, b, b.length, base, true);
+    }
+
+    // Нормалізує операнди до дільника з n кінців і ділить ділене блоками по n кінців;
+    // newton вибирає ділення через обернене число замість рекурсії
+    private static int[][] divideBlocks(int[] a, int[] b, int n, long base, boolean newton) {
+        int shift = n - b.length;
+        long d = base / (b[b.length - 1] + 1L);
+        int[] bn = shiftUp(multiplySmall(b, d, base), shift);
+        int[] an = shiftUp(multiplySmall(a, d, base), shift);
+        int[] x = newton ? reciprocal(bn, n, base) : null;
+
+        int t = Math.max(2, (an.length + n) / n); // an < B^(t n - 1), тож старший блок менший за bn
+        int[] quotient = new int[t * n + 1];
+        int[] z = high(an, (t - 2) * n);
+        int[] remainder = ZERO;
+        for (int i = t - 2; i >= 0; i--) {
+            int[][] qr = x == null ? divide2n1n(z, bn, n, base) : divideByReciprocal(z, bn, x, n, base);
+            addInto(quotient, qr[0], i * n, base);
+            remainder = qr[1];
+            if (i > 0) {
+                z = add(shiftUp(remainder, n), slice(an, (i - 1) * n, i * n), base);
+            }
+        }
+
+        long[] unused = new long[1];
+        return new int[][] {trim(quotient), divideSmall(high(remainder, shift), d, base, unused)};
+    }
+
+    // a < b B^n, b - n кінців, нормалізований
+    private static int[][] divide2n1n(int[] a, int[] b, int n, long base) {
+        if ((n & 1) != 0 || n < burnikelZieglerThreshold) {
+            return divideSchool(a, b, base);
+        }
+        int h = n / 2;
+        int[][] first = divide3n2n(high(a, h), b, h, base);
+        int[][] second = divide3n2n(add(shiftUp(first[1], h), low(a, h), base), b, h, base);
+        return new int[][] {add(shiftUp(first[0], h), second[0], base), second[1]};
+    }
+
+    // a < b B^h, b - 2h кінців, нормалізований
+    private static int[][] divide3n2n(int[] a, int[] b, int h, long base) {
+        int[] a12 = high(a, h);
+        int[] b1 = high(b, h);
+        int[] b2 = low(b, h);
+
+        int[] qHat;
+        int[] r1;
+        if (compare(high(a12, h), b1) < 0) {
+            int[][] qr = divide2n1n(a12, b1, h, base);
+            qHat = qr[0];
+            r1 = qr[1];
+        } else {
+            // старші блоки рівні: qHat = B^h - 1, r1 = a12 - qHat b1 = low(a12) + b1
+            qHat = new int[h];
+            Arrays.fill(qHat, (int) (base - 1));
+            r1 = add(low(a12, h), b1, base);
+        }
+
+        int[] product = multiply(qHat, b2, base);
+        int[] x = add(shiftUp(r1, h), low(a, h), base);
+        int[] one = {1};
+        while (compare(x, product) < 0) {
+            qHat = subtract(qHat, one, base);
+            x = add(x, b, base);
+        }
+        return new int[][] {qHat, subtract(x, product, base)};
+    }
+
+    // a < b B^n, x = floor(B^2n / b): частка занижена не більше ніж на 2
+    private static int[][] divideByReciprocal(int[] a, int[] b, int[] x, int n, long base) {
+        int[] q = high(multiply(a, x, base), 2 * n);
+        int[] r = subtract(a, multiply(q, b, base), base);
+        int[] one = {1};
+        while (compare(r, b) >= 0) {
+            q = add(q, one, base);
+            r = subtract(r, b, base);
+        }
+        return new int[][] {q, r};
+    }
+
+    // floor(B^2n / b) для нормалізованого b з n кінців: обернене до старших h кінців
+    // уточнюється одним кроком Ньютона x + x (B^2n - b x) / B^2n і виправляється до точного
+    static int[] reciprocal(int[] b, int n, long base) {
+        int[] power = shiftUp(new int[] {1}, 2 * n);
+        if (n <= Math.max(4, burnikelZieglerThreshold)) {
+            return divideSchool(power, b, base)[0];
+        }
+
+        int h = n / 2 + 2;
+        int[] x = shiftUp(reciprocal(high(b, n - h), h, base), n - h);
+        int[] bx = multiply(b, x, base);
+        if (compare(bx, power) <= 0) {
+            int[] e = subtract(power, bx, base);
+            x = add(x, high(multiply(x, e, base), 2 * n), base);
+        } else {
+            int[] e = subtract(bx, power, base);
+            x = subtract(x, high(multiply(x, e, base), 2 * n), base);
+        }
+
+        // виправлення до точного floor: b x <= B^2n < b (x + 1)
+        int[] one = {1};
+        bx = multiply(b, x, base);
+        while (compare(bx, power) > 0) {
+            x = subtract(x, one, base);
+            bx = subtract(bx, b, base);
+        }
+        int[] rest = subtract(power, bx, base);
+        while (compare(rest, b) >= 0) {
+            x = add(x, one, base);
+            rest = subtract(rest, b, base);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Передобчислені величини для арифметики за модулем m у кінцях {@link LimbNumber}.
+ * Якщо m взаємно простий з основою кінців B, множення виконується за
+ * Монтгомері (R = B^n), інакше - з редукцією Барретта. Контексти кешуються
+ * для останніх використаних модулів, тож повторні піднесення до степеня за
+ * тим самим модулем не обчислюють їх знову.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class ModularContext {
+
+    private static final int MAX_CONTEXTS = 16;
+
+    // модулі в порядку доступу (LRU)
+    private static final LinkedHashMap<Key, ModularContext> CONTEXTS =
+            new LinkedHashMap<Key, ModularContext>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, ModularContext> eldest) {
+                    return size() > MAX_CONTEXTS;
+                }
+            };
+
+    private static final int[] ONE = {1};
+
+    final LimbNumber modulus;
+    private final long limbBase; // B
+    private final long limbInverse; // floor((2^64 - 1) / B)
+    private final int[] m; // кінці модуля
+    private final int n; // кількість кінців модуля
+    final boolean montgomery;
+    private final long mPrime; // -m^-1 mod B (Монтгомері)
+    private final int[] r2; // R^2 mod m (Монтгомері)
+    private final int[] mu; // floor(B^2n / m) (Барретт)
+
+    private ModularContext(LimbNumber modulus) {
+        this.modulus = modulus;
+        this.limbBase = modulus.limbBase;
+        this.limbInverse = Long.divideUnsigned(-1L, limbBase);
+        this.m = modulus.mag;
+        this.n = m.length;
+        this.montgomery = gcd(m[0], limbBase) == 1;
+        if (montgomery) {
+            mPrime = limbBase - inverse(m[0], limbBase);
+            r2 = LimbNumber.divide(LimbNumber.shiftUp(ONE, 2 * n), m, limbBase)[1];
+            mu = null;
+        } else {
+            mPrime = 0;
+            r2 = null;
+            mu = LimbNumber.divide(LimbNumber.shiftUp(ONE, 2 * n), m, limbBase)[0];
+        }
+    }
+
+    // Ключ кешу: основа і кінці модуля
+    private static final class Key {
+        private final int base;
+        private final int[] mag;
+
+        Key(LimbNumber modulus) {
+            this.base = modulus.base;
+            this.mag = modulus.mag;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).base == base && Arrays.equals(((Key) o).mag, mag);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * base + Arrays.hashCode(mag);
+        }
+    }
+
+    /**
+     * Контекст для модуля, з кешу чи щойно обчислений.
+     *
+     * @throws ArithmeticException якщо модуль дорівнює нулю
+     */
+    static ModularContext of(LimbNumber modulus) {
+        if (modulus.isZero()) {
+            throw new ArithmeticException("Modulus must be positive");
+        }
+
+        Key key = new Key(modulus);
+        synchronized (CONTEXTS) {
+            ModularContext context = CONTEXTS.get(key);
+            if (context != null) {
+                return context;
+            }
+        }
+        // обчислюємо поза монітором; гонка лише створить зайвий контекст
+        ModularContext context = new ModularContext(modulus);
+        synchronized (CONTEXTS) {
+            ModularContext previous = CONTEXTS.putIfAbsent(key, context);
+            return previous != null ? previous : context;
+        }
+    }
+
+    static void clear() {
+        synchronized (CONTEXTS) {
+            CONTEXTS.clear();
+        }
+    }
+
+    /**
+     * a^e mod m ковзним вікном по двійкових розрядах показника.
+     */
+    LimbNumber pow(LimbNumber a, LimbNumber e) {
+        int[] exponent = bits(e.mag);
+        int bitLength = exponent.length == 0 ? 0
+                : 16 * exponent.length - Integer.numberOfLeadingZeros(exponent[exponent.length - 1]) + 16;
+        int window = bitLength <= 24 ? 1 : bitLength <= 80 ? 3 : bitLength <= 240 ? 4 : bitLength <= 672 ? 5 : 6;
+
+        // непарні степені a^1, a^3, ..., a^(2^w - 1) у формі модуля
+        int[][] table = new int[1 << (window - 1)][];
+        table[0] = enter(reduce(a.mag));
+        int[] square = multiply(table[0], table[0]);
+        for (int i = 1; i < table.length; i++) {
+            table[i] = multiply(table[i - 1], square);
+        }
+
+        int[] result = enter(reduce(ONE));
+        int i = bitLength - 1;
+        while (i >= 0) {
+            if (bit(exponent, i) == 0) {
+                result = multiply(result, result);
+                i--;
+                continue;
+            }
+            // найдовше вікно [j..i] з одиницями на кінцях
+            int j = Math.max(i - window + 1, 0);
+            while (bit(exponent, j) == 0) {
+                j++;
+            }
+            int value = 0;
+            for (int k = i; k >= j; k--) {
+                result = multiply(result, result);
+                value = value << 1 | bit(exponent, k);
+            }
+            result = multiply(result, table[value >> 1]);
+            i = j - 1;
+        }
+        return modulus.with(leave(result));
+    }
+
+    // x mod m для довільного x
+    private int[] reduce(int[] x) {
+        return LimbNumber.compare(x, m) < 0 ? x : LimbNumber.divide(x, m, limbBase)[1];
+    }
+
+    // Переводить остачу у форму, в якій множить multiply
+    private int[] enter(int[] x) {
+        return montgomery ? montgomeryMultiply(x, r2) : x;
+    }
+
+    // Повертає остачу зі форми multiply
+    private int[] leave(int[] x) {
+        return montgomery ? montgomeryMultiply(x, ONE) : x;
+    }
+
+    private int[] multiply(int[] x, int[] y) {
+        return montgomery ? montgomeryMultiply(x, y) : barrett(LimbNumber.multiply(x, y, limbBase));
+    }
+
+    // x y R^-1 mod m, x, y < m; множення і редукція в одному проході по кінцях (FIOS).
+    // Ділення на B замінено множенням на обернене з однією поправкою; проміжна сума
+    // t + x_i y_j + u m_j + carry може перевищити 2^63, тож вона беззнакова
+    private int[] montgomeryMultiply(int[] x, int[] y) {
+        long base = limbBase;
+        long inverse = limbInverse;
+        x = x.length == n ? x : Arrays.copyOf(x, n);
+        y = y.length == n ? y : Arrays.copyOf(y, n);
+        long[] t = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            long xi = x[i];
+            long s = t[0] + xi * y[0];
+            long u = s - Math.unsignedMultiplyHigh(s, inverse) * base; // s mod B з недостачею B
+            u = (u >= base ? u - base : u) * mPrime;
+            u -= Math.unsignedMultiplyHigh(u, inverse) * base;
+            u = u >= base ? u - base : u;
+
+            s += u * m[0]; // ділиться на B
+            long carry = Math.unsignedMultiplyHigh(s, inverse);
+            if (s - carry * base >= base) {
+                carry++;
+            }
+            for (int j = 1; j < n; j++) {
+                s = t[j] + xi * y[j] + u * m[j] + carry;
+                carry = Math.unsignedMultiplyHigh(s, inverse);
+                s -= carry * base;
+                if (s >= base) {
+                    carry++;
+                    s -= base;
+                }
+                t[j - 1] = s;
+            }
+            s = t[n] + carry;
+            carry = s >= base ? 1 : 0;
+            t[n - 1] = s - carry * base;
+            t[n] = carry;
+        }
+
+        int[] result = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            result[i] = (int) t[i];
+        }
+        result = LimbNumber.trim(result);
+        return LimbNumber.compare(result, m) >= 0 ? LimbNumber.subtract(result, m, base) : result;
+    }
+
+    // x mod m для x < B^2n за Барреттом: частка оцінюється з mu з недостачею не більше 2
+    private int[] barrett(int[] x) {
+        int[] q = LimbNumber.high(LimbNumber.multiply(LimbNumber.high(x, n - 1), mu, limbBase), n + 1);
+        int[] r = LimbNumber.subtract(x, LimbNumber.multiply(q, m, limbBase), limbBase);
+        while (LimbNumber.compare(r, m) >= 0) {
+            r = LimbNumber.subtract(r, m, limbBase);
+        }
+        return r;
+    }
+
+    // Двійкові розряди показника шматками по 16 біт, від молодшого
+    private int[] bits(int[] e) {
+        int[] chunks = new int[(int) (e.length * 31L / 16) + 2];
+        long[] remainder = new long[1];
+        int count = 0;
+        while (e.length > 0) {
+            e = LimbNumber.divideSmall(e, 1 << 16, limbBase, remainder);
+            chunks[count++] = (int) remainder[0];
+        }
+        return LimbNumber.trim(Arrays.copyOf(chunks, count));
+    }
+
+    private static int bit(int[] chunks, int index) {
+        return chunks[index >>> 4] >>> (index & 15) & 1;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    // a^-1 mod modulus розширеним алгоритмом Евкліда; gcd(a, modulus) = 1
+    private static long inverse(long a, long modulus) {
+        long r0 = modulus, r1 = a;
+        long s0 = 0, s1 = 1;
+        while (r1 != 0) {
+            long q = r0 / r1;
+            long t = r0 - q * r1;
+            r0 = r1;
+            r1 = t;
+            t = s0 - q * s1;
+            s0 = s1;
+            s1 = t;
+        }
+        return s0 < 0 ? s0 + modulus : s0;
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Відкладений вираз над числами-списками. Методи {@link #add} і
+ * {@link #multiply} лише будують граф операцій; обчислення відбувається в
+ * {@link #evaluate()}. Проміжні результати зберігаються не вузлами
+ * списку, а масивами кінців (base^k на <tt>int</tt>), спільні підвирази
+ * обчислюються один раз, а послідовні додавання зливаються в одну суму з
+ * єдиним проходом переносів, у який цифри операндів зчитуються напряму.
+ * Операнди не копіюються: зміна списку до обчислення змінює результат.<p>
+ *
+ * Основа виразу - основа першого операнда; цифри інших операндів мають бути
+ * меншими за неї, як і в {@link NumberListImpl#additionalOperation}.
+ *
+ * <pre>
+ * NumberListImpl r = NumberExpression.of(a).add(b).multiply(c).add(d).evaluate();
+ * </pre>
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public abstract class NumberExpression {
+
+    final int base;
+
+    private NumberExpression(int base) {
+        this.base = base;
+    }
+
+
+    /**
+     * Вираз з одного числа.
+     *
+     * @param operand - число
+     * @return вираз, що дорівнює числу
+     * @throws IllegalArgumentException якщо аргумент null
+     */
+    public static NumberExpression of(NumberList operand) {
+        if (operand == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        return new Operand(operand);
+    }
+
+
+    /**
+     * Сума цього виразу та іншого. Ланцюжок додавань обчислюється однією сумою.
+     *
+     * @param other - доданок
+     * @return новий вираз
+     */
+    public NumberExpression add(NumberExpression other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        List<NumberExpression> terms = new ArrayList<>();
+        for (NumberExpression term : new NumberExpression[] {this, other}) {
+            if (term instanceof Sum) {
+                terms.addAll(Arrays.asList(((Sum) term).terms));
+            } else {
+                terms.add(term);
+            }
+        }
+        return new Sum(base, terms.toArray(new NumberExpression[0]));
+    }
+
+
+    /**
+     * Сума цього виразу та числа.
+     *
+     * @param other - доданок
+     * @return новий вираз
+     */
+    public NumberExpression add(NumberList other) {
+        return add(of(other));
+    }
+
+
+    /**
+     * Добуток цього виразу та іншого.
+     *
+     * @param other - множник
+     * @return новий вираз
+     */
+    public NumberExpression multiply(NumberExpression other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        return new Product(base, this, other);
+    }
+
+
+    /**
+     * Добуток цього виразу та числа.
+     *
+     * @param other - множник
+     * @return новий вираз
+     */
+    public NumberExpression multiply(NumberList other) {
+        return multiply(of(other));
+    }
+
+
+    /**
+     * Обчислює вираз. Граф не змінюється, тож вираз можна обчислювати повторно.
+     *
+     * @return значення виразу в основі першого операнда
+     * @throws IllegalArgumentException якщо операнд містить цифру поза основою
+     */
+    public NumberListImpl evaluate() {
+        Evaluator evaluator = new Evaluator(base);
+        byte[] digits = LimbNumber.fromDigits(base, new byte[0], 0, 0).with(evaluator.value(this)).toDigits();
+        return NumberListImpl.fromDigits(base, digits, 0, digits.length);
+    }
+
+    // Значення вузла в кінцях, від молодшого
+    abstract int[] compute(Evaluator evaluator);
+
+    // Число-операнд
+    private static final class Operand extends NumberExpression {
+        private final NumberList list;
+
+        Operand(NumberList list) {
+            super(baseOf(list));
+            this.list = list;
+        }
+
+        @Override
+        int[] compute(Evaluator evaluator) {
+            int digitsPerLimb = evaluator.digitsPerLimb;
+            long[] limbs = evaluator.scratch((list.size() + digitsPerLimb - 1) / digitsPerLimb);
+            evaluator.accumulate(list, limbs);
+            int[] mag = new int[(list.size() + digitsPerLimb - 1) / digitsPerLimb];
+            for (int i = 0; i < mag.length; i++) {
+                mag[i] = (int) limbs[i];
+            }
+            return LimbNumber.trim(mag);
+        }
+    }
+
+    // Сума будь-якої кількості доданків
+    private static final class Sum extends NumberExpression {
+        private final NumberExpression[] terms;
+
+        Sum(int base, NumberExpression[] terms) {
+            super(base);
+            this.terms = terms;
+        }
+
+        @Override
+        int[] compute(Evaluator evaluator) {
+            // доданки, що не є операндами, обчислюємо заздалегідь - вони теж беруть scratch
+            int[][] values = new int[terms.length][];
+            int length = 0;
+            for (int t = 0; t < terms.length; t++) {
+                if (terms[t] instanceof Operand && !evaluator.isDone(terms[t])) {
+                    int size = ((Operand) terms[t]).list.size();
+                    length = Math.max(length, (size + evaluator.digitsPerLimb - 1) / evaluator.digitsPerLimb);
+                } else {
+                    values[t] = evaluator.value(terms[t]);
+                    length = Math.max(length, values[t].length);
+                }
+            }
+
+            // стовпчики кінців накопичуються без переносів: до 2^31 доданків по < 2^31
+            long[] columns = evaluator.scratch(length + 2);
+            List<NumberListImpl> lists = new ArrayList<>();
+            for (int t = 0; t < terms.length; t++) {
+                if (values[t] != null) {
+                    for (int i = 0; i < values[t].length; i++) {
+                        columns[i] += values[t][i];
+                    }
+                } else if (((Operand) terms[t]).list instanceof NumberListImpl) {
+                    lists.add((NumberListImpl) ((Operand) terms[t]).list);
+                } else {
+                    evaluator.accumulate(((Operand) terms[t]).list, columns);
+                }
+            }
+            NumberListImpl.addLimbsTo(lists.toArray(new NumberListImpl[0]), columns,
+                    evaluator.base, evaluator.digitsPerLimb);
+
+            long limbBase = evaluator.limbBase;
+            int[] mag = new int[length + 2];
+            long carry = 0;
+            for (int i = 0; i < mag.length; i++) {
+                long column = columns[i] + carry;
+                carry = column / limbBase;
+                mag[i] = (int) (column - carry * limbBase);
+            }
+            return LimbNumber.trim(mag);
+        }
+    }
+
+    // Добуток двох множників
+    private static final class Product extends NumberExpression {
+        private final NumberExpression left;
+        private final NumberExpression right;
+
+        Product(int base, NumberExpression left, NumberExpression right) {
+            super(base);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int[] compute(Evaluator evaluator) {
+            return LimbNumber.multiply(evaluator.value(left), evaluator.value(right), evaluator.limbBase);
+        }
+    }
+
+    // Стан одного обчислення: параметри кінців, готові вузли і спільний буфер
+    static final class Evaluator {
+        final int base;
+        final int digitsPerLimb;
+        final long limbBase;
+        private final int[] weights; // base^j, j < digitsPerLimb
+        private final IdentityHashMap<NumberExpression, int[]> done = new IdentityHashMap<>();
+        private long[] scratch = new long[0];
+
+        Evaluator(int base) {
+            LimbNumber zero = LimbNumber.fromDigits(base, new byte[0], 0, 0);
+            this.base = base;
+            this.digitsPerLimb = zero.digitsPerLimb;
+            this.limbBase = zero.limbBase;
+            this.weights = new int[digitsPerLimb];
+            int weight = 1;
+            for (int j = 0; j < digitsPerLimb; j++) {
+                weights[j] = weight;
+                weight *= base;
+            }
+        }
+
+        int[] value(NumberExpression node) {
+            int[] value = done.get(node);
+            if (value == null) {
+                value = node.compute(this);
+                done.put(node, value);
+            }
+            return value;
+        }
+
+        boolean isDone(NumberExpression node) {
+            return done.containsKey(node);
+        }
+
+        // Обнулений буфер щонайменше з length елементів; вміст живе до наступного виклику
+        long[] scratch(int length) {
+            if (scratch.length < length) {
+                scratch = new long[Math.max(length, scratch.length * 2)];
+            } else {
+                Arrays.fill(scratch, 0, length, 0L);
+            }
+            return scratch;
+        }
+
+        // Додає цифри списку до стовпчиків кінців. Вузли NumberListImpl і масив
+        // цифр AbstractNumberList обходяться напряму, по кінцю за раз
+        void accumulate(NumberList list, long[] columns) {
+            if (list instanceof NumberListImpl) {
+                NumberListImpl.addLimbsTo(new NumberListImpl[] {(NumberListImpl) list}, columns, base, digitsPerLimb);
+            } else if (list instanceof AbstractNumberList) {
+                accumulate(((AbstractNumberList) list).toDigitArray(), columns);
+            } else {
+                accumulate(digitsOf(list), list.size(), columns);
+            }
+        }
+
+        private void accumulate(byte[] digits, long[] columns) {
+            if (digits.length == 0) {
+                return;
+            }
+            int limb = (digits.length - 1) / digitsPerLimb;
+            int count = digits.length - limb * digitsPerLimb; // старший кінець неповний
+            int i = 0;
+            for (; limb >= 0; limb--, count = digitsPerLimb) {
+                long value = 0;
+                for (int end = i + count; i < end; i++) {
+                    value = value * base + checkDigit(digits[i]);
+                }
+                columns[limb] += value;
+            }
+        }
+
+        // Цифри від старшої; кожна додається до свого кінця з вагою base^j
+        private void accumulate(PrimitiveIterator.OfInt digits, int size, long[] columns) {
+            int position = size - 1;
+            if (position < 0) {
+                return;
+            }
+            int limb = position / digitsPerLimb;
+            int offset = position % digitsPerLimb;
+            while (digits.hasNext()) {
+                columns[limb] += (long) checkDigit(digits.nextInt()) * weights[offset];
+                if (offset == 0) {
+                    limb--;
+                    offset = digitsPerLimb - 1;
+                } else {
+                    offset--;
+                }
+            }
+        }
+
+        private int checkDigit(int digit) {
+            if (digit < 0 || digit >= base) {
+                throw new IllegalArgumentException("Digit must be in range [0, " + (base - 1) + "]");
+            }
+            return digit;
+        }
+    }
+
+    // Цифри довільного NumberList від старшої
+    private static PrimitiveIterator.OfInt digitsOf(NumberList list) {
+        Iterator<Byte> it = list.iterator();
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Byte digit = it.next();
+                if (digit == null) {
+                    throw new IllegalArgumentException("Null elements not permitted");
+                }
+                return digit;
+            }
+        };
+    }
+
+    private static int baseOf(NumberList list) {
+        return list instanceof NumberListImpl ? ((NumberListImpl) list).base()
+                : list instanceof AbstractNumberList ? ((AbstractNumberList) list).base() : 8;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Читання файлу з багатьма десятковими числами, по одному в рядку
+ * (формат {@link NumberFileWriter}). Файл відображається в пам'ять цілком;
+ * для пакетного читання він ділиться на частини по межах рядків, які
+ * розбираються паралельно. Порожній останній рядок (завершальний '\n')
+ * ігнорується, пробіли та '\r' навколо числа відкидаються.<p>
+ *
+ * Некоректний запис спричиняє {@link NumberFormatException} зі зміщенням
+ * рядка у файлі.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class NumberFileReader implements AutoCloseable, Iterable<NumberListImpl> {
+
+    /**
+     * Частини, менші за цей розмір, не варто розбирати окремо.
+     */
+    static final long MIN_CHUNK_BYTES = 1 << 16;
+
+    private final Path file;
+    private final Arena arena;
+    private final MemorySegment segment;
+
+    /**
+     * Відкриває файл і відображає його в пам'ять.
+     *
+     * @param file - файл з числами
+     * @throws IOException якщо файл не вдалося відкрити
+     */
+    public NumberFileReader(Path file) throws IOException {
+        this.file = file;
+        this.arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.segment = channel.size() == 0
+                    ? MemorySegment.NULL
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Послідовно розбирає числа під час ітерації, не тримаючи їх усіх у пам'яті.
+     *
+     * @return ітератор чисел у порядку рядків
+     */
+    @Override
+    public Iterator<NumberListImpl> iterator() {
+        return new Iterator<>() {
+            private long position;
+
+            @Override
+            public boolean hasNext() {
+                return position < size();
+            }
+
+            @Override
+            public NumberListImpl next() {
+                if (position >= size()) {
+                    throw new NoSuchElementException();
+                }
+                long start = position;
+                long end = lineEnd(start);
+                position = end + 1;
+                return parse(start, end);
+            }
+        };
+    }
+
+
+    /**
+     * Повертає впорядкований потік чисел, що розбираються частинами файлу;
+     * <tt>stream().parallel()</tt> розбирає частини паралельно.
+     *
+     * @return потік чисел у порядку рядків
+     */
+    public Stream<NumberListImpl> stream() {
+        int parts = Runtime.getRuntime().availableProcessors() * 4;
+        return chunks(Math.max(MIN_CHUNK_BYTES, size() / parts)).stream()
+                .flatMap(chunk -> parseChunk(chunk[0], chunk[1]).stream());
+    }
+
+
+    /**
+     * Розбирає всі числа файлу паралельно.
+     *
+     * @return список чисел у порядку рядків
+     */
+    public List<NumberListImpl> readAll() {
+        return stream().parallel().collect(Collectors.toList());
+    }
+
+
+    /**
+     * Звільняє відображення файлу.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+    private long size() {
+        return segment.byteSize();
+    }
+
+    // Межі частин [from, to), кожна з яких закінчується після '\n' або в кінці файлу
+    private List<long[]> chunks(long targetBytes) {
+        List<long[]> chunks = new ArrayList<>();
+        long size = size();
+        for (long from = 0; from < size; ) {
+            long to = from + targetBytes >= size ? size : Math.min(size, lineEnd(from + targetBytes) + 1);
+            chunks.add(new long[] {from, to});
+            from = to;
+        }
+        return chunks;
+    }
+
+    private List<NumberListImpl> parseChunk(long from, long to) {
+        List<NumberListImpl> numbers = new ArrayList<>();
+        for (long start = from; start < to; ) {
+            long end = lineEnd(start);
+            numbers.add(parse(start, end));
+            start = end + 1;
+        }
+        return numbers;
+    }
+
+    // Позиція '\n', що завершує рядок, або size() для останнього рядка
+    private long lineEnd(long position) {
+        long size = size();
+        while (position < size && segment.get(ValueLayout.JAVA_BYTE, position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private NumberListImpl parse(long start, long end) {
+        long from = start;
+        long to = end;
+        while (from < to && isBlank(segment.get(ValueLayout.JAVA_BYTE, from))) {
+            from++;
+        }
+        while (to > from && isBlank(segment.get(ValueLayout.JAVA_BYTE, to - 1))) {
+            to--;
+        }
+        if (to - from > Integer.MAX_VALUE) {
+            throw new NumberFormatException(file + ": record at offset " + start + " is too long");
+        }
+
+        byte[] bytes = new byte[(int) (to - from)];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, from, bytes, 0, bytes.length);
+        try {
+            return NumberListImpl.parse(new String(bytes, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            NumberFormatException described = new NumberFormatException(
+                    file + ": record at offset " + start + ": " + e.getMessage());
+            described.initCause(e);
+            throw described;
+        }
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Запис багатьох чисел у файл у десятковій системі, по одному в рядку,
+ * кожен рядок завершується '\n'. Такий файл читає {@link NumberFileReader}.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class NumberFileWriter implements AutoCloseable {
+
+    // довші числа пишуться потоково, без рядка в пам'яті
+    private static final int STREAMING_DIGITS = 1 << 12;
+
+    private final BufferedWriter writer;
+
+    /**
+     * Створює файл (наявний перезаписується).
+     *
+     * @param file - файл для чисел
+     * @throws IOException якщо файл не вдалося створити
+     */
+    public NumberFileWriter(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII);
+    }
+
+
+    /**
+     * Дописує число окремим рядком.
+     *
+     * @param number - число (вісімкове, якщо це не <tt>NumberListImpl</tt>
+     *                 чи інший список цього пакета)
+     * @throws IOException якщо запис не вдався
+     */
+    public void write(NumberList number) throws IOException {
+        if (number instanceof NumberListImpl && number.size() > STREAMING_DIGITS) {
+            ((NumberListImpl) number).writeDecimalTo(writer);
+        } else if (number instanceof NumberListImpl) {
+            writer.write(((NumberListImpl) number).toDecimalString());
+        } else if (number instanceof AbstractNumberList) {
+            writer.write(((AbstractNumberList) number).toDecimalString());
+        } else {
+            NumberListImpl copy = new NumberListImpl();
+            copy.addAll(number);
+            writer.write(copy.toDecimalString());
+        }
+        writer.write('\n');
+    }
+
+
+    /**
+     * Дописує всі числа, кожне окремим рядком.
+     *
+     * @param numbers - числа для запису
+     * @throws IOException якщо запис не вдався
+     */
+    public void writeAll(Iterable<? extends NumberList> numbers) throws IOException {
+        for (NumberList number : numbers) {
+            write(number);
+        }
+    }
+
+
+    /**
+     * Записує буфер на диск і закриває файл.
+     *
+     * @throws IOException якщо запис не вдався
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -13,13 +13,22 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 import ua.kpi.comsys.test2.NumberList;
 
@@ -38,11 +47,33 @@ public class NumberListImpl implements NumberList {
     private static final int DEFAULT_BASE = 8; // вісімкова система 
     private static final int ALTERNATIVE_BASE = 10; // десяткова система
 
+    // подання, довші за цю межу, не кешуються, щоб кеш не подвоював пам'ять списку
+    private static final int MAX_CACHED_VIEW_LENGTH = 1 << 20;
+    private static final int VIEW_DECIMAL = 0; // toDecimalString()
+    private static final int VIEW_NATIVE = 1; // toString()
+    private static final int VIEW_ALTERNATIVE = 2; // цифри changeScale()
+
+    // найбільша група цифр скалярної арифметики: цифри групи пакуються по 4 біти в long
+    private static final int MAX_GROUP_DIGITS = 15;
+
+    // чи зберігати кешовані подання через SoftReference
+    private static volatile boolean softViewCache = false;
+
+    // скільки звільнених вузлів кожен список тримає для повторного використання; 0 - пул вимкнено
+    private static volatile int nodePoolCapacity = 0;
+
     private final int base; // система числення для цього списку
     private Node head; // голова списку
     private Node tail; // хвіст списку
     private int size; // розмір списку
     private int modCount = 0; // лічильник модифікацій для ітераторів
+    private ViewCache viewCache; // кеш похідних подань числа
+    private Node freeNodes; // пул звільнених вузлів, зв'язаних через next
+    private int freeCount; // кількість вузлів у пулі
+    private DigitIndex digitIndex; // покажчик входжень цифр, якщо ввімкнено
+    private Journal journal; // журнал змін для інкрементного збереження, якщо ввімкнено
+    private int width; // фіксована кількість цифр регістра за модулем base^width; 0 - не фіксована
+    private boolean carryOut; // чи вийшов перенос за старший розряд регістра в останній операції
 
     // Вузол кільцевого однонаправленого списку
     private static class Node {
@@ -54,6 +85,126 @@ public class NumberListImpl implements NumberList {
         }
     }
 
+    // Кеш рядкових подань числа, дійсний лише для значення modCount, за якого його створено
+    private static final class ViewCache {
+        final int stamp;
+        private final Object[] views = new Object[3]; // String або SoftReference<String>
+
+        ViewCache(int stamp) {
+            this.stamp = stamp;
+        }
+
+        @SuppressWarnings("unchecked")
+        String get(int kind) {
+            Object view = views[kind];
+            if (view instanceof SoftReference) {
+                return ((SoftReference<String>) view).get();
+            }
+            return (String) view;
+        }
+
+        void put(int kind, String value, boolean soft) {
+            views[kind] = soft ? new SoftReference<>(value) : value;
+        }
+    }
+
+    // Покажчик входжень цифр. Кількості завжди точні; перша й остання позиції
+    // актуальні лише для цифр з бітом у known, решта обчислюються ліниво одним проходом
+    private static final class DigitIndex {
+        final int[] counts;
+        final int[] first;
+        final int[] last;
+        int known; // бітова маска цифр з актуальними first/last
+
+        DigitIndex(int base) {
+            counts = new int[base];
+            first = new int[base];
+            last = new int[base];
+        }
+
+        boolean knows(int digit) {
+            return (known & (1 << digit)) != 0;
+        }
+
+        // Цифру дописано в кінець, у позицію position
+        void appended(int position, int digit) {
+            if (counts[digit]++ == 0) {
+                first[digit] = position;
+                known |= 1 << digit;
+            }
+            last[digit] = position;
+        }
+
+        // Цифру вставлено в позицію position, наступні зсунулися праворуч
+        void inserted(int position, int digit) {
+            shift(position, 1);
+            if (counts[digit]++ == 0) {
+                first[digit] = position;
+                last[digit] = position;
+                known |= 1 << digit;
+            } else {
+                first[digit] = Math.min(first[digit], position);
+                last[digit] = Math.max(last[digit], position);
+            }
+        }
+
+        // Цифру вилучено з позиції position, наступні зсунулися ліворуч
+        void removed(int position, int digit) {
+            forget(position, digit);
+            shift(position + 1, -1);
+        }
+
+        // Цифру в позиції position замінено іншою
+        void replaced(int position, int oldDigit, int newDigit) {
+            if (oldDigit == newDigit) {
+                return;
+            }
+            forget(position, oldDigit);
+            if (counts[newDigit]++ == 0) {
+                first[newDigit] = position;
+                last[newDigit] = position;
+                known |= 1 << newDigit;
+            } else {
+                first[newDigit] = Math.min(first[newDigit], position);
+                last[newDigit] = Math.max(last[newDigit], position);
+            }
+        }
+
+        // Лише кількості; позиції після такої зміни слід скинути через known = 0
+        void counted(int oldDigit, int newDigit) {
+            counts[oldDigit]--;
+            counts[newDigit]++;
+        }
+
+        void reset() {
+            Arrays.fill(counts, 0);
+            known = 0;
+        }
+
+        // Зменшує кількість digit; крайні позиції цифри стають невідомими, якщо вилучено саме їх
+        private void forget(int position, int digit) {
+            if (--counts[digit] == 0) {
+                known |= 1 << digit;
+            } else if (first[digit] == position || last[digit] == position) {
+                known &= ~(1 << digit);
+            }
+        }
+
+        // Зсуває відомі позиції, не менші за from, на delta; незмінні для відсутніх цифр
+        private void shift(int from, int delta) {
+            for (int digit = 0; digit < counts.length; digit++) {
+                if (counts[digit] > 0 && knows(digit)) {
+                    if (first[digit] >= from) {
+                        first[digit] += delta;
+                    }
+                    if (last[digit] >= from) {
+                        last[digit] += delta;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Default constructor. Returns empty <tt>NumberListImpl</tt>
      */
@@ -77,19 +228,36 @@ public class NumberListImpl implements NumberList {
 
     /**
      * Constructs new <tt>NumberListImpl</tt> by <b>decimal</b> number
-     * from file, defined in string format.
+     * from file, defined in string format. Changes journaled next to the
+     * file (see {@link #enableJournal(File)}) are replayed on top of it.
      *
      * @param file - file where number is stored.
      */
     public NumberListImpl(File file) {
         this();
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line = reader.readLine();
             if (line != null && !line.trim().isEmpty()) {
+                bytes = line.length();
                 initFromDecimalString(line.trim());
+                Journal.replay(this, file);
             }
+            event.success = true;
         } catch (Exception e) {
-            // якщо файл не знайдено або помилка читання - залишаємо список порожнім
+            // якщо файл не знайдено, не читається або містить некоректне число - залишаємо список порожнім
+        }
+        NumberListMetrics.record(NumberListMetrics.LOAD, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = NumberListMetrics.LOAD;
+            event.path = file.getPath();
+            event.bytes = bytes;
+            event.digits = size;
+            event.commit();
         }
     }
 
@@ -109,176 +277,1639 @@ public class NumberListImpl implements NumberList {
         }
     }
 
-    // Ініціалізація списку з десяткового числа (у вигляді рядка)
+    /**
+     * Розбирає <b>десяткове</b> число у рядковому записі. На відміну від
+     * конструктора, некоректний запис спричиняє виняток, а не порожній список.
+     *
+     * @param value - невід'ємне десяткове число
+     * @return список у вісімковій системі
+     * @throws NumberFormatException якщо рядок порожній, від'ємний або не є числом
+     */
+    public static NumberListImpl parse(String value) {
+        if (value == null || value.isEmpty()) {
+            throw new NumberFormatException("Empty number");
+        }
+        NumberListImpl list = new NumberListImpl();
+        list.initFromDecimalString(value);
+        return list;
+    }
+
+    // Ініціалізація списку з десяткового числа (у вигляді рядка) одним проходом:
+    // перевірка символів, пропуск провідних нулів, блоки по 18 цифр через long
+    // у перетворювач "поділяй і володарюй" і заповнення списку одним блоком.
+    // Некоректне число спричиняє NumberFormatException з позицією символу
     private void initFromDecimalString(String decimalStr) {
         if (decimalStr == null || decimalStr.isEmpty()) {
             return;
         }
 
-        // прибираємо нулі на початку
-        decimalStr = decimalStr.replaceFirst("^0+(?!$)", "");
+        int length = decimalStr.length();
+        char sign = decimalStr.charAt(0);
+        int first = sign == '+' || sign == '-' ? 1 : 0;
+        if (first == length) {
+            throw new NumberFormatException("No digits after sign in \"" + decimalStr + "\"");
+        }
 
-        // перетворюємо рядок у число (використовуємо BigInteger для великих чисел)
-        BigInteger decimalValue;
-        try {
-            decimalValue = new BigInteger(decimalStr);
-        } catch (NumberFormatException e) {
-            return; // якщо число некоректне, залишаємо список порожнім
+        // перевіряємо всі символи і знаходимо першу значущу цифру
+        int significant = -1;
+        for (int i = first; i < length; i++) {
+            char ch = decimalStr.charAt(i);
+            if (ch < '0' || ch > '9') {
+                throw new NumberFormatException("Illegal character '" + ch + "' at position " + i
+                        + " in \"" + decimalStr + "\"");
+            }
+            if (significant < 0 && ch != '0') {
+                significant = i;
+            }
         }
 
-        // перевіряємо на від'ємні числа
-        if (decimalValue.compareTo(BigInteger.ZERO) < 0) {
+        if (significant < 0) {
+            add((byte) 0); // нуль, зокрема "-0", як і раніше
             return;
         }
+        if (sign == '-') {
+            throw new NumberFormatException("Negative number: " + decimalStr);
+        }
 
-        if (decimalValue.equals(BigInteger.ZERO)) {
-            add((byte) 0);
+        RadixPowerCache.Tables tables = RadixPowerCache.tables(10, base);
+        BigInteger value = RadixConverter.toBigInteger(
+                new DecimalDigits(decimalStr, significant), length - significant, tables.source);
+        byte[] digits = RadixConverter.toDigits(value, tables.target);
+        appendDigits(digits, 0, digits.length);
+    }
+
+
+    /**
+     * Saves the number, stored in the list, into specified file
+     * in <b>decimal</b> scale of notation. If the list is journaled to
+     * this file, only the changes since the last save are written
+     * (see {@link #checkpoint()}); otherwise a journal left next to the
+     * file by another list is deleted, so it is not replayed on this value.
+     *
+     * @param file - file where number has to be stored.
+     */
+    public void saveList(File file) {
+        if (journal != null && journal.file.equals(file)) {
+            checkpoint();
             return;
         }
 
-        // переводимо десяткове число у нашу систему числення
-        String numberInBase = decimalValue.toString(base);
-        for (int i = 0; i < numberInBase.length(); i++) {
-            char ch = numberInBase.charAt(i);
-            byte digit;
-            if (ch >= '0' && ch <= '9') {
-                digit = (byte) (ch - '0');
-            } else if (ch >= 'a' && ch <= 'z') {
-                digit = (byte) (ch - 'a' + 10);
-            } else if (ch >= 'A' && ch <= 'Z') {
-                digit = (byte) (ch - 'A' + 10);
-            } else {
-                continue;
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String decimal = toDecimalString();
+        try {
+            // спершу журнал: збій між двома кроками залишить старий знімок без журналу,
+            // а не новий знімок із записами, зробленими для старого
+            Files.deleteIfExists(Journal.sidecar(file));
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+                writer.write(decimal);
+            }
+            event.success = true;
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing to file: " + e.getMessage(), e);
+        } finally {
+            NumberListMetrics.record(NumberListMetrics.SAVE, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = NumberListMetrics.SAVE;
+                event.path = file.getPath();
+                event.bytes = decimal.length();
+                event.digits = size;
+                event.commit();
             }
-            add(digit);
         }
     }
 
 
     /**
-     * Saves the number, stored in the list, into specified file
-     * in <b>decimal</b> scale of notation.
+     * Вмикає журнальне збереження у файл: записує повний знімок числа, а
+     * подальші зміни списку накопичує як компактні записи. {@link #checkpoint()}
+     * (і {@link #saveList(File)} у той самий файл) дописує лише ці записи в
+     * журнал <tt>&lt;файл&gt;.journal</tt>; конструктор з файлом відтворює їх.
      *
-     * @param file - file where number has to be stored.
+     * @param file - файл числа
+     * @throws RuntimeException якщо знімок не вдалося записати
      */
-    public void saveList(File file) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(toDecimalString());
+    public void enableJournal(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        try {
+            journal = Journal.start(this, file);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing to file: " + e.getMessage(), e);
+        }
+    }
+
+
+    /**
+     * Згортає журнал у знімок і вимикає журнальне збереження.
+     * Нічого не робить, якщо журнал не ввімкнено.
+     *
+     * @throws RuntimeException якщо знімок не вдалося записати
+     */
+    public void disableJournal() {
+        if (journal != null) {
+            compact();
+            journal = null;
+        }
+    }
+
+
+    /**
+     * Дописує в журнал зміни після попередньої контрольної точки. Вартість
+     * пропорційна кількості змін; коли журнал переростає знімок, він
+     * згортається автоматично.
+     *
+     * @throws IllegalStateException якщо журнал не ввімкнено
+     * @throws RuntimeException якщо запис не вдався
+     */
+    public void checkpoint() {
+        persist(false);
+    }
+
+
+    /**
+     * Переписує знімок поточним значенням і очищує журнал.
+     *
+     * @throws IllegalStateException якщо журнал не ввімкнено
+     * @throws RuntimeException якщо запис не вдався
+     */
+    public void compact() {
+        persist(true);
+    }
+
+    private void persist(boolean compact) {
+        if (journal == null) {
+            throw new IllegalStateException("Journal is not enabled");
+        }
+
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes = 0;
+        try {
+            bytes = compact ? journal.compact(this) : journal.checkpoint(this);
+            event.success = true;
         } catch (IOException e) {
             throw new RuntimeException("Error writing to file: " + e.getMessage(), e);
+        } finally {
+            NumberListMetrics.record(NumberListMetrics.CHECKPOINT, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = NumberListMetrics.CHECKPOINT;
+                event.path = journal.file.getPath();
+                event.bytes = bytes;
+                event.digits = size;
+                event.commit();
+            }
+        }
+    }
+
+
+    /**
+     * Returns student's record book number, which has 4 decimal digits.
+     *
+     * @return student's record book number.
+     */
+    public static int getRecordBookNumber() {
+        return 7;
+    }
+
+
+    /**
+     * Переведення числа з вісімкової у десяткову систему числення.
+     * Не змінює поточний список.
+     *
+     * @return новий список у десятковій системі
+     */
+    public NumberListImpl changeScale() {
+        // цифри в альтернативній системі беремо з кешу, якщо число не змінювалось
+        String numberInAltBase = cachedView(VIEW_ALTERNATIVE);
+        if (numberInAltBase == null) {
+            ConversionEvent event = new ConversionEvent();
+            event.begin();
+            long start = System.nanoTime();
+
+            byte[] altDigits = isEmpty()
+                    ? new byte[1]
+                    : RadixConverter.convert(toDigitArray(), 0, size, base, ALTERNATIVE_BASE);
+            numberInAltBase = cacheView(VIEW_ALTERNATIVE, RadixConverter.digitString(altDigits));
+
+            NumberListMetrics.record(NumberListMetrics.CHANGE_SCALE, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = NumberListMetrics.CHANGE_SCALE;
+                event.sourceBase = base;
+                event.targetBase = ALTERNATIVE_BASE;
+                event.sourceDigits = size;
+                event.resultDigits = altDigits.length;
+                event.commit();
+            }
+        }
+
+        // створюємо новий список в альтернативній системі числення
+        NumberListImpl result = new NumberListImpl(ALTERNATIVE_BASE);
+
+        byte[] digits = new byte[numberInAltBase.length()];
+        int count = 0;
+        for (int i = 0; i < numberInAltBase.length(); i++) {
+            int digit = Character.digit(numberInAltBase.charAt(i), ALTERNATIVE_BASE);
+            if (digit >= 0) {
+                digits[count++] = (byte) digit;
+            }
+        }
+        result.appendDigits(digits, 0, count);
+
+        // результат має те саме значення, тож його подання вже відомі
+        if (ALTERNATIVE_BASE <= 10) {
+            result.cacheView(VIEW_NATIVE, numberInAltBase);
+        }
+        String decimal = cachedView(VIEW_DECIMAL);
+        if (decimal != null) {
+            result.cacheView(VIEW_DECIMAL, decimal);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Додавання двох чисел у вісімковій системі числення.
+     * Не змінює поточний список та аргумент.
+     *
+     * @param arg - друге число для додавання
+     * @return результат додавання
+     */
+    public NumberListImpl additionalOperation(NumberList arg) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+
+        ArithmeticEvent event = new ArithmeticEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        // копіюємо перше число і додаємо до копії друге за один прохід
+        NumberListImpl result = new NumberListImpl(this.base);
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            result.add(current.data);
+            current = current.next;
+        }
+        result.addInPlace(arg);
+
+        NumberListMetrics.record(NumberListMetrics.ADDITIONAL_OPERATION, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = NumberListMetrics.ADDITIONAL_OPERATION;
+            event.base = base;
+            event.leftDigits = size;
+            event.rightDigits = arg.size();
+            event.resultDigits = result.size;
+            event.commit();
+        }
+        return result;
+    }
+
+
+    /**
+     * Ділення з остачею на інше число тієї ж основи.
+     * Не змінює поточний список та аргумент. Довгі числа діляться
+     * рекурсивно (Бурнікель-Циглер) або множенням на обернене число
+     * (ітерації Ньютона), тож ділення коштує кілька множень.
+     *
+     * @param divisor - дільник; його цифри мають бути меншими за основу
+     * @return масив з двох списків: частка і остача
+     * @throws IllegalArgumentException якщо аргумент null або містить цифру поза основою
+     * @throws ArithmeticException якщо дільник дорівнює нулю
+     */
+    public NumberListImpl[] divideAndRemainder(NumberList divisor) {
+        if (divisor == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+
+        ArithmeticEvent event = new ArithmeticEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        byte[] divisorDigits = operandDigits(divisor);
+        LimbNumber dividend = LimbNumber.fromDigits(base, toDigitArray(), 0, size);
+        LimbNumber[] parts = dividend.divideAndRemainder(
+                LimbNumber.fromDigits(base, divisorDigits, 0, divisorDigits.length));
+
+        NumberListImpl[] result = {fromLimbs(parts[0]), fromLimbs(parts[1])};
+
+        NumberListMetrics.record(NumberListMetrics.DIVIDE, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = NumberListMetrics.DIVIDE;
+            event.base = base;
+            event.leftDigits = size;
+            event.rightDigits = divisorDigits.length;
+            event.resultDigits = result[0].size;
+            event.commit();
+        }
+        return result;
+    }
+
+
+    /**
+     * Піднесення до степеня за модулем: this^exponent mod modulus.
+     * Не змінює поточний список та аргументи. Використовує ковзне вікно
+     * по двійкових розрядах показника і множення Монтгомері, якщо модуль
+     * взаємно простий з основою, інакше - редукцію Барретта. Передобчислене
+     * для модуля перевикористовується наступними викликами з тим самим модулем.
+     *
+     * @param exponent - показник степеня
+     * @param modulus - модуль
+     * @return остача від ділення степеня на модуль
+     * @throws IllegalArgumentException якщо аргумент null або містить цифру поза основою
+     * @throws ArithmeticException якщо модуль дорівнює нулю
+     */
+    public NumberListImpl modPow(NumberList exponent, NumberList modulus) {
+        if (exponent == null || modulus == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+
+        ArithmeticEvent event = new ArithmeticEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        byte[] exponentDigits = operandDigits(exponent);
+        byte[] modulusDigits = operandDigits(modulus);
+        ModularContext context = ModularContext.of(LimbNumber.fromDigits(base, modulusDigits, 0, modulusDigits.length));
+        NumberListImpl result = fromLimbs(context.pow(LimbNumber.fromDigits(base, toDigitArray(), 0, size),
+                LimbNumber.fromDigits(base, exponentDigits, 0, exponentDigits.length)));
+
+        NumberListMetrics.record(NumberListMetrics.MOD_POW, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = NumberListMetrics.MOD_POW;
+            event.base = base;
+            event.leftDigits = size;
+            event.rightDigits = modulusDigits.length;
+            event.resultDigits = result.size;
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Остача від ділення числа на модуль за один прохід по цифрах, без
+     * переведення в десяткову систему і без створення об'єктів. Зручно для
+     * відбитків чисел: mod 1e9+7, mod 2^61-1 тощо.
+     *
+     * @param modulus - додатний модуль
+     * @return остача в межах [0, modulus)
+     * @throws ArithmeticException якщо модуль не додатний
+     */
+    public long residue(long modulus) {
+        return residue(modulus, Residues.inverse(modulus));
+    }
+
+    // Схема Горнера групами цифр за одним модулем
+    private long residue(long modulus, long inverse) {
+        int chunkDigits = Residues.chunkDigits(base);
+        long multiplier = Residues.power(base, chunkDigits);
+
+        long r = 0;
+        long chunk = 0;
+        int filled = 0;
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            chunk = chunk * base + current.data;
+            if (++filled == chunkDigits) {
+                r = Residues.step(r, multiplier, chunk, modulus, inverse);
+                chunk = 0;
+                filled = 0;
+            }
+            current = current.next;
+        }
+        if (filled > 0) {
+            r = Residues.step(r, Residues.power(base, filled), chunk, modulus, inverse);
+        }
+        return r;
+    }
+
+
+    /**
+     * Остачі від ділення числа на кілька модулів за один спільний прохід по цифрах.
+     *
+     * @param moduli - додатні модулі
+     * @return остачі в порядку модулів
+     * @throws ArithmeticException якщо якийсь модуль не додатний
+     */
+    public long[] residues(long... moduli) {
+        long[] inverses = new long[moduli.length];
+        for (int m = 0; m < moduli.length; m++) {
+            inverses[m] = Residues.inverse(moduli[m]);
+        }
+        if (moduli.length == 1) {
+            return new long[] {residue(moduli[0], inverses[0])};
+        }
+        int chunkDigits = Residues.chunkDigits(base);
+        long multiplier = Residues.power(base, chunkDigits);
+
+        long[] r = new long[moduli.length];
+        long chunk = 0;
+        int filled = 0;
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            chunk = chunk * base + current.data;
+            if (++filled == chunkDigits) {
+                for (int m = 0; m < moduli.length; m++) {
+                    r[m] = Residues.step(r[m], multiplier, chunk, moduli[m], inverses[m]);
+                }
+                chunk = 0;
+                filled = 0;
+            }
+            current = current.next;
+        }
+        if (filled > 0) {
+            long tail = Residues.power(base, filled);
+            for (int m = 0; m < moduli.length; m++) {
+                r[m] = Residues.step(r[m], tail, chunk, moduli[m], inverses[m]);
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Сума цифр числа в його системі числення. З увімкненим покажчиком
+     * цифр ({@link #enableDigitIndex()}) обчислюється без проходу по списку.
+     *
+     * @return сума цифр
+     */
+    public long digitSum() {
+        long sum = 0;
+        if (digitIndex != null) {
+            for (int digit = 1; digit < base; digit++) {
+                sum += (long) digit * digitIndex.counts[digit];
+            }
+            return sum;
+        }
+
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            sum += current.data;
+            current = current.next;
+        }
+        return sum;
+    }
+
+    // Цифри операнда від старшої; цифри чужого списку перевіряються
+    private byte[] operandDigits(NumberList operand) {
+        if (operand instanceof NumberListImpl && ((NumberListImpl) operand).base <= base) {
+            return ((NumberListImpl) operand).toDigitArray();
+        }
+        byte[] digits = new byte[operand.size()];
+        int i = 0;
+        for (Byte digit : operand) {
+            digits[i++] = checkDigit(digit);
+        }
+        return digits;
+    }
+
+    // Список поточної основи з числа в кінцях
+    private NumberListImpl fromLimbs(LimbNumber number) {
+        byte[] digits = number.toDigits();
+        return fromDigits(base, digits, 0, digits.length);
+    }
+
+
+    /**
+     * Вмикає режим регістра фіксованої ширини: список доповнюється нулями
+     * зі старшого боку або втрачає старші цифри до рівно <tt>digits</tt>
+     * цифр, після чого арифметика на місці ({@link #addInPlace},
+     * {@link #incrementBy}, {@link #addSmall}, {@link #multiplySmall},
+     * {@link #divideSmall}) виконується за модулем base^digits і не змінює
+     * розміру: перенос за старший розряд відкидається і повідомляється
+     * через {@link #carryOut()}. Операції, що змінюють розмір списку,
+     * відхиляються. Повторний виклик змінює ширину.
+     *
+     * @param digits - кількість цифр регістра
+     * @throws IllegalArgumentException якщо ширина не додатна
+     */
+    public void enableFixedWidth(int digits) {
+        if (digits < 1) {
+            throw new IllegalArgumentException("Width must be positive: " + digits);
+        }
+        if (journal != null) {
+            journal.widthFixed(digits);
+        }
+
+        carryOut = false;
+        while (size > digits) {
+            // старші цифри за межами регістра відкидаються, як перенос
+            Node dropped = head;
+            carryOut |= dropped.data != 0;
+            head = dropped.next;
+            tail.next = head;
+            size--;
+            if (digitIndex != null) {
+                digitIndex.counts[dropped.data]--;
+            }
+            release(dropped);
         }
+        while (size < digits) {
+            prepend((byte) 0);
+        }
+        width = digits;
+
+        if (digitIndex != null) {
+            digitIndex.known = 0;
+        }
+        modified();
+    }
+
+
+    /**
+     * Вимикає режим регістра фіксованої ширини; цифри, зокрема провідні
+     * нулі, залишаються. Нічого не робить, якщо режим не ввімкнено.
+     */
+    public void disableFixedWidth() {
+        if (width == 0) {
+            return;
+        }
+        if (journal != null) {
+            journal.widthFixed(0);
+        }
+        width = 0;
+        carryOut = false;
+    }
+
+
+    /**
+     * Повертає ширину регістра.
+     *
+     * @return кількість цифр регістра або 0, якщо ширина не фіксована
+     */
+    public int fixedWidth() {
+        return width;
+    }
+
+
+    /**
+     * Чи вийшов перенос за старший розряд регістра фіксованої ширини під
+     * час останньої арифметичної операції на місці (або чи було втрачено
+     * ненульові цифри при ввімкненні режиму). Без фіксованої ширини список
+     * росте, тож завжди <tt>false</tt>.
+     *
+     * @return <tt>true</tt>, якщо результат узято за модулем base^width
+     */
+    public boolean carryOut() {
+        return carryOut;
+    }
+
+
+    /**
+     * Додає до поточного числа інше, змінюючи поточний список.
+     * Наявні вузли перевикористовуються, нові додаються лише зі старшого боку,
+     * коли сума довша за поточне число.
+     *
+     * @param addend - число, що додається; його цифри мають бути меншими за основу
+     * @throws IllegalArgumentException якщо аргумент null або містить цифру поза основою
+     */
+    public void addInPlace(NumberList addend) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        carryOut = false;
+        if (addend.isEmpty()) {
+            return;
+        }
+
+        byte[] snapshot = null;
+        if (addend == this) {
+            // додавання до самого себе - цифри треба зберегти до зміни списку
+            snapshot = toDigitArray();
+        } else if (!(addend instanceof NumberListImpl) || ((NumberListImpl) addend).base > base) {
+            // цифри чужого списку перевіряємо заздалегідь, щоб не змінити список частково
+            snapshot = new byte[addend.size()];
+            int i = 0;
+            for (Byte digit : addend) {
+                snapshot[i++] = checkDigit(digit);
+            }
+        }
+
+        if (journal != null) {
+            journal.added(snapshot != null ? snapshot : ((NumberListImpl) addend).toDigitArray());
+        }
+        if (snapshot != null) {
+            addDigits(new ArrayDigits(snapshot), snapshot.length);
+        } else {
+            addDigits(new ListDigits(addend.iterator()), addend.size());
+        }
+    }
+
+
+    /**
+     * Додає до поточного числа невід'ємне число типу <tt>long</tt>, змінюючи поточний список.
+     *
+     * @param value - невід'ємний доданок
+     * @throws IllegalArgumentException якщо доданок від'ємний
+     */
+    public void incrementBy(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + value);
+        }
+        carryOut = false;
+        if (value == 0) {
+            return;
+        }
+        if (journal != null) {
+            journal.incremented(value);
+        }
+
+        // кількість цифр доданка і вага його старшої цифри
+        int length = 1;
+        long power = 1;
+        while (value / power >= base) {
+            power *= base;
+            length++;
+        }
+        addDigits(new ScalarDigits(value, power, base), length);
+    }
+
+    /**
+     * Додає до поточного числа невід'ємне число типу <tt>long</tt> на місці;
+     * те саме, що {@link #incrementBy(long)}. Поруч з {@link #multiplySmall}
+     * і {@link #divideSmall} для одноманітних обчислень зі скалярами.
+     *
+     * @param value - невід'ємний доданок
+     * @throws IllegalArgumentException якщо доданок від'ємний
+     */
+    public void addSmall(long value) {
+        incrementBy(value);
+    }
+
+
+    /**
+     * Множить поточне число на невід'ємне число типу <tt>long</tt> на місці
+     * за один прохід від старшої цифри, без проміжних списків. Цифри
+     * обробляються групами, що вміщаються в <tt>long</tt> разом з множником;
+     * перенос у вже записані групи відкладається, доки не стане відомим
+     * (лише групи з усіма цифрами base - 1 чекають довше). Нові вузли
+     * додаються лише для старших цифр добутку; множення на 0 залишає одну
+     * цифру 0 (регістр фіксованої ширини - нулі на всю ширину).
+     *
+     * @param factor - множник від 0 до Long.MAX_VALUE / base
+     * @throws IllegalArgumentException якщо множник поза межами
+     */
+    public void multiplySmall(long factor) {
+        checkScalar(factor);
+        carryOut = false;
+        if (factor == 1 || size == 0) {
+            return;
+        }
+        if (journal != null) {
+            journal.multiplied(factor);
+        }
+
+        int group = Math.min(groupDigits(Long.MAX_VALUE / Math.max(factor, 1)), MAX_GROUP_DIGITS);
+        long groupBase = 1;
+        for (int j = 0; j < group; j++) {
+            groupBase *= base;
+        }
+        if (factor == 0 && width == 0) {
+            collapseToZero();
+        } else if (groupBase >= factor) {
+            multiplyForward(factor, group, groupBase);
+        } else {
+            multiplyReversed(factor); // множник понад ~2^30: перенос групи може бути більшим за 1
+        }
+
+        if (digitIndex != null) {
+            digitIndex.known = 0; // позиції змінилися в довільних місцях
+        }
+        modified();
+    }
+
+    // Нульовий добуток - одна цифра 0, як після divideSmall; решта вузлів повертається в пул
+    private void collapseToZero() {
+        Node rest = head.next;
+        for (int i = 1; i < size; i++) {
+            Node next = rest.next;
+            release(rest);
+            rest = next;
+        }
+        head.data = 0;
+        head.next = head;
+        tail = head;
+        size = 1;
+        if (digitIndex != null) {
+            digitIndex.reset();
+            digitIndex.counts[0] = 1;
+        }
+    }
+
+    // Множення від старшої групи. Добуток групи i дає молодшу частину для
+    // групи i і старшу (меншу за множник, а отже й за основу групи) для групи
+    // i - 1, тож у кожну групу приходить перенос 0 або 1. Остання записана
+    // група (held) і наступні за нею групи з цифр base - 1 (nines) чекають,
+    // поки наступна група не визначить перенос
+    private void multiplyForward(long factor, int group, long groupBase) {
+        boolean powerOfTwo = (base & (base - 1)) == 0;
+        int shift = Integer.numberOfTrailingZeros(base);
+
+        long top = 0; // старші цифри добутку, що додадуться новими вузлами
+        long held = 0;
+        Node heldStart = null; // null - група над старшою цифрою, тобто top
+        int nines = 0;
+        Node ninesStart = null;
+        long previous = 0; // молодша частина добутку попередньої групи
+        Node previousStart = null;
+        int previousCount = 0;
+
+        Node current = head;
+        int count = group;
+        for (int done = 0; done < size; done += count) {
+            count = Math.min(group, size - done); // неповна група - наймолодша
+            Node start = current;
+            long chunk = 0;
+            long chunkBase = 1;
+            for (int j = 0; j < count; j++) {
+                chunk = powerOfTwo ? chunk << shift | current.data : chunk * base + current.data;
+                chunkBase *= base;
+                current = current.next;
+            }
+            long product = chunk * factor;
+            long high = powerOfTwo ? product >>> (shift * count) : product / chunkBase;
+            long low = product - high * chunkBase;
+
+            if (previousStart == null) {
+                held = high;
+            } else {
+                long value = previous + high; // менше за 2 * groupBase
+                if (value >= groupBase) {
+                    top = emitGroup(heldStart, group, held + 1, top);
+                    fillGroups(ninesStart, nines * group, 0);
+                    held = value - groupBase;
+                    heldStart = previousStart;
+                    nines = 0;
+                } else if (value == groupBase - 1) {
+                    if (nines++ == 0) {
+                        ninesStart = previousStart;
+                    }
+                } else {
+                    top = emitGroup(heldStart, group, held, top);
+                    fillGroups(ninesStart, nines * group, base - 1);
+                    held = value;
+                    heldStart = previousStart;
+                    nines = 0;
+                }
+            }
+            previous = low;
+            previousStart = start;
+            previousCount = count;
+        }
+
+        // у наймолодшу групу переносу немає
+        top = emitGroup(heldStart, group, held, top);
+        fillGroups(ninesStart, nines * group, base - 1);
+        writeGroup(previousStart, previousCount, previous);
+        prependCarry(top);
+    }
+
+    // Записує значення групи у вузли або, для групи над старшою цифрою, повертає його як top
+    private long emitGroup(Node start, int count, long value, long top) {
+        if (start == null) {
+            return value;
+        }
+        writeGroup(start, count, value);
+        return top;
+    }
+
+    // Записує digit у count вузлів, починаючи з start
+    private void fillGroups(Node start, int count, int digit) {
+        for (int j = 0; j < count; j++) {
+            counted(start.data, digit);
+            start.data = (byte) digit;
+            start = start.next;
+        }
+    }
+
+    // Множення від молодшої цифри з розворотом кільця - для множників, більших
+    // за основу групи, коли перенос між групами може бути довільним
+    private void multiplyReversed(long factor) {
+        int group = groupDigits(Long.MAX_VALUE / factor);
+        long inverse = Residues.inverse(base);
+
+        reverse();
+        long carry = 0;
+        Node current = head;
+        for (int done = 0; done < size; done += group) {
+            int count = Math.min(group, size - done);
+            Node first = current;
+            long chunk = 0;
+            long power = 1;
+            for (int j = 0; j < count; j++) {
+                chunk += current.data * power;
+                power *= base;
+                current = current.next;
+            }
+            long product = chunk * factor + carry; // не більше power * factor
+            carry = product / power;
+            long value = product - carry * power;
+            for (int j = 0; j < count; j++) {
+                long rest = Math.unsignedMultiplyHigh(value, inverse);
+                long digit = value - rest * base;
+                if (digit >= base) {
+                    rest++;
+                    digit -= base;
+                }
+                counted(first.data, (int) digit);
+                first.data = (byte) digit;
+                first = first.next;
+                value = rest;
+            }
+        }
+        reverse();
+        prependCarry(carry);
+    }
+
+    // Дописує перенос старшими цифрами; регістр фіксованої ширини його лише фіксує
+    private void prependCarry(long carry) {
+        if (width > 0) {
+            carryOut = carry != 0;
+            return;
+        }
+        while (carry > 0) {
+            long rest = carry / base;
+            prepend((byte) (carry - rest * base));
+            carry = rest;
+        }
+    }
+
+
+    /**
+     * Ділить поточне число на додатне число типу <tt>long</tt> на місці:
+     * один прохід від старшої цифри з остачею в <tt>long</tt>, групами цифр,
+     * як у {@link #multiplySmall}. Провідні нулі частки вилучаються
+     * (лишається щонайменше одна цифра), крім регістра фіксованої ширини.
+     *
+     * @param divisor - дільник від 1 до Long.MAX_VALUE / base
+     * @return остача від ділення
+     * @throws IllegalArgumentException якщо дільник від'ємний або завеликий
+     * @throws ArithmeticException якщо дільник дорівнює нулю
+     */
+    public long divideSmall(long divisor) {
+        checkScalar(divisor);
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (journal != null) {
+            journal.divided(divisor);
+        }
+        carryOut = false;
+
+        boolean powerOfTwo = (base & (base - 1)) == 0;
+        int shift = Integer.numberOfTrailingZeros(base);
+        int group = Math.min(groupDigits(Long.MAX_VALUE / divisor), MAX_GROUP_DIGITS);
+
+        long remainder = 0;
+        Node current = head;
+        // неповна група - старша, щоб решта груп були повними
+        int count = size % group == 0 ? group : size % group;
+        for (int done = 0; done < size; done += count, count = group) {
+            Node start = current;
+            long chunk = 0;
+            long chunkBase = 1;
+            for (int j = 0; j < count; j++) {
+                chunk = powerOfTwo ? chunk << shift | current.data : chunk * base + current.data;
+                chunkBase *= base;
+                current = current.next;
+            }
+            long value = remainder * chunkBase + chunk; // остача менша за дільник
+            long quotient = value / divisor;
+            remainder = value - quotient * divisor;
+            writeGroup(start, count, quotient);
+        }
+
+        while (width == 0 && size > 1 && head.data == 0) {
+            Node zero = head;
+            head = zero.next;
+            tail.next = head;
+            size--;
+            if (digitIndex != null) {
+                digitIndex.counts[0]--;
+            }
+            release(zero);
+        }
+
+        if (digitIndex != null) {
+            digitIndex.known = 0;
+        }
+        modified();
+        return remainder;
+    }
+
+    // Найбільша кількість цифр k, для якої base^k не перевищує limit (щонайменше 1)
+    private int groupDigits(long limit) {
+        int digits = 1;
+        long power = base;
+        while (power <= limit / base) {
+            power *= base;
+            digits++;
+        }
+        return digits;
+    }
+
+    // Записує count цифр value (value < base^count) у вузли від start, від старшої цифри.
+    // Для основи-степеня двійки цифри - це бітові поля; інакше вони виходять від
+    // молодшої діленням на основу через множення на обернене і пакуються по 4 біти
+    private void writeGroup(Node start, int count, long value) {
+        if ((base & (base - 1)) == 0) {
+            int shift = Integer.numberOfTrailingZeros(base);
+            for (int j = count - 1; j >= 0; j--) {
+                int digit = (int) (value >>> (shift * j)) & (base - 1);
+                counted(start.data, digit);
+                start.data = (byte) digit;
+                start = start.next;
+            }
+            return;
+        }
+
+        long inverse = Residues.inverse(base);
+        long packed = 0;
+        for (int j = 0; j < count; j++) {
+            long rest = Math.unsignedMultiplyHigh(value, inverse);
+            long digit = value - rest * base;
+            if (digit >= base) {
+                rest++;
+                digit -= base;
+            }
+            packed |= digit << (4 * j);
+            value = rest;
+        }
+        for (int j = count - 1; j >= 0; j--) {
+            int digit = (int) (packed >>> (4 * j)) & 0xF;
+            counted(start.data, digit);
+            start.data = (byte) digit;
+            start = start.next;
+        }
+    }
+
+    // Скаляр має вміщатися так, щоб цифра * скаляр + перенос не переповнили long
+    private void checkScalar(long value) {
+        if (value < 0 || value > Long.MAX_VALUE / base) {
+            throw new IllegalArgumentException("Value must be in range [0, " + Long.MAX_VALUE / base + "]: " + value);
+        }
+    }
+
+    // Розвертає кільце на місці: голова й хвіст міняються місцями, цифри йдуть у зворотному порядку
+    private void reverse() {
+        Node previous = tail;
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            Node next = current.next;
+            current.next = previous;
+            previous = current;
+            current = next;
+        }
+        Node oldHead = head;
+        head = tail;
+        tail = oldHead;
+    }
+
+    // Додає до списку число з length цифр, що видаються від старшої до молодшої
+    private void addDigits(PrimitiveIterator.OfInt digits, int length) {
+        carryOut = false;
+        if (width > 0) {
+            // регістр не росте: старші за нього цифри доданка лише дають перенос
+            for (; length > size; length--) {
+                carryOut |= digits.nextInt() != 0;
+            }
+        }
+        // вирівнюємо довжини нулями зі старшого боку
+        while (size < length) {
+            prepend((byte) 0);
+        }
+
+        // найправіший оброблений вузол із цифрою, меншою за base - 1: саме він
+        // прийме перенос, а всі вузли після нього (цифри base - 1) обнуляться
+        Node belowMax = null;
+        Node current = head;
+        for (int i = length; i < size; i++) {
+            if (current.data < base - 1) {
+                belowMax = current;
+            }
+            current = current.next;
+        }
+
+        for (int i = 0; i < length; i++) {
+            int sum = current.data + digits.nextInt();
+            if (sum >= base) {
+                sum -= base;
+                Node zero;
+                if (belowMax == null && width > 0) {
+                    // перенос виходить за старший розряд регістра і відкидається
+                    carryOut = true;
+                    zero = head;
+                } else if (belowMax == null) {
+                    // перенос виходить за старший розряд - список росте ліворуч
+                    prepend((byte) 1);
+                    zero = head.next;
+                } else {
+                    counted(belowMax.data, belowMax.data + 1);
+                    belowMax.data++;
+                    zero = belowMax.next;
+                }
+                for (; zero != current; zero = zero.next) {
+                    counted(zero.data, 0);
+                    zero.data = 0;
+                }
+            }
+            counted(current.data, sum);
+            current.data = (byte) sum;
+            if (sum < base - 1) {
+                belowMax = current;
+            }
+            current = current.next;
+        }
+
+        if (digitIndex != null) {
+            digitIndex.known = 0; // позиції змінилися в довільних місцях
+        }
+        modified();
+    }
+
+    // Оновлює кількості покажчика цифр, не відстежуючи позицій
+    private void counted(int oldDigit, int newDigit) {
+        if (digitIndex != null) {
+            digitIndex.counted(oldDigit, newDigit);
+        }
+    }
+
+    // Додає вузол перед головою списку
+    private void prepend(byte digit) {
+        if (digitIndex != null) {
+            digitIndex.counts[digit]++;
+        }
+        Node newNode = newNode(digit);
+        if (head == null) {
+            tail = newNode;
+        } else {
+            newNode.next = head;
+        }
+        head = newNode;
+        tail.next = head;
+        size++;
+    }
+
+    private byte checkDigit(Byte digit) {
+        if (digit == null) {
+            throw new IllegalArgumentException("Null elements not permitted");
+        }
+        if (digit < 0 || digit >= base) {
+            throw new IllegalArgumentException("Digit must be in range [0, " + (base - 1) + "]");
+        }
+        return digit;
+    }
+
+    // Десяткові цифри рядка, починаючи з позиції index; символи вже перевірено
+    private static final class DecimalDigits implements PrimitiveIterator.OfInt {
+        private final String text;
+        private int index;
+
+        DecimalDigits(String text, int index) {
+            this.text = text;
+            this.index = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < text.length();
+        }
+
+        @Override
+        public int nextInt() {
+            return text.charAt(index++) - '0';
+        }
+    }
+
+    // Цифри з масиву
+    private static final class ArrayDigits implements PrimitiveIterator.OfInt {
+        private final byte[] digits;
+        private int index;
+
+        ArrayDigits(byte[] digits) {
+            this.digits = digits;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < digits.length;
+        }
+
+        @Override
+        public int nextInt() {
+            return digits[index++];
+        }
+    }
+
+    // Цифри іншого списку тієї ж основи
+    private static final class ListDigits implements PrimitiveIterator.OfInt {
+        private final Iterator<Byte> iterator;
+
+        ListDigits(Iterator<Byte> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public int nextInt() {
+            return iterator.next();
+        }
+    }
+
+    // Цифри числа типу long, від старшої до молодшої
+    private static final class ScalarDigits implements PrimitiveIterator.OfInt {
+        private final int base;
+        private long rest;
+        private long power; // вага наступної цифри
+
+        ScalarDigits(long value, long power, int base) {
+            this.rest = value;
+            this.power = power;
+            this.base = base;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return power > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            int digit = (int) (rest / power);
+            rest %= power;
+            power /= base;
+            return digit;
+        }
+    }
+
+
+    /**
+     * Повертає число у десятковій системі як рядок.
+     *
+     * @return рядок з числом у десятковій системі
+     */
+    public String toDecimalString() {
+        if (isEmpty()) {
+            return "0";
+        }
+
+        String cached = cachedView(VIEW_DECIMAL);
+        if (cached != null) {
+            return cached;
+        }
+
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        // переводимо з нашої системи у десяткову методом "поділяй і володарюй"
+        byte[] decimal = RadixConverter.convert(toDigitArray(), 0, size, base, 10);
+
+        NumberListMetrics.record(NumberListMetrics.TO_DECIMAL_STRING, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = NumberListMetrics.TO_DECIMAL_STRING;
+            event.sourceBase = base;
+            event.targetBase = 10;
+            event.sourceDigits = size;
+            event.resultDigits = decimal.length;
+            event.commit();
+        }
+        return cacheView(VIEW_DECIMAL, RadixConverter.digitString(decimal));
+    }
+
+
+    /**
+     * Записує число в його системі числення (як {@link #toString()}) порціями
+     * через буфер фіксованого розміру, не будуючи рядок усього числа.
+     *
+     * @param out - адресат символів
+     * @throws IOException якщо адресат не прийняв символи
+     */
+    public void writeTo(Appendable out) throws IOException {
+        writeNative(new DigitWriter(out));
+    }
+
+
+    /**
+     * Записує число в його системі числення як ASCII-символи в канал
+     * через буфер фіксованого розміру.
+     *
+     * @param channel - канал для запису
+     * @throws IOException якщо запис не вдався
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        writeNative(new DigitWriter(channel));
+    }
+
+
+    /**
+     * Записує число в десятковій системі (як {@link #toDecimalString()}).
+     * Десяткові цифри видаються від старшої прямо з розкладу "поділяй і володарюй",
+     * тож окрім значення числа потрібен лише буфер фіксованого розміру.
+     *
+     * @param out - адресат символів
+     * @throws IOException якщо адресат не прийняв символи
+     */
+    public void writeDecimalTo(Appendable out) throws IOException {
+        writeDecimal(new DigitWriter(out));
+    }
+
+
+    /**
+     * Записує число в десятковій системі як ASCII-символи в канал.
+     *
+     * @param channel - канал для запису
+     * @throws IOException якщо запис не вдався
+     */
+    public void writeDecimalTo(WritableByteChannel channel) throws IOException {
+        writeDecimal(new DigitWriter(channel));
+    }
+
+
+    /**
+     * Повертає живе подання цифр числа у його системі числення як
+     * {@link CharSequence}, нічого не копіюючи. Послідовне читання
+     * <tt>charAt</tt> виконується за O(1) на символ; подання відображає
+     * поточний вміст списку.
+     *
+     * @return символьне подання числа
+     */
+    public CharSequence asCharSequence() {
+        return new NativeView();
+    }
+
+
+    /**
+     * Повертає ліниве десяткове подання числа як {@link CharSequence}.
+     * Переведення виконується лише під час першого звернення до символів
+     * (і повторно - після зміни списку), а не під час створення подання.
+     *
+     * @return символьне десяткове подання числа
+     */
+    public CharSequence asDecimalCharSequence() {
+        return new DecimalView();
+    }
+
+    private void writeNative(DigitWriter writer) throws IOException {
+        if (isEmpty()) {
+            writer.digit(0);
+        }
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            writer.digit(current.data);
+            current = current.next;
+        }
+        writer.flush();
+    }
+
+    private void writeDecimal(DigitWriter writer) throws IOException {
+        String cached = cachedView(VIEW_DECIMAL);
+        if (cached != null) {
+            for (int i = 0; i < cached.length(); i++) {
+                writer.digit(cached.charAt(i) - '0');
+            }
+        } else if (isEmpty()) {
+            writer.digit(0);
+        } else {
+            RadixPowerCache.Tables tables = RadixPowerCache.tables(base, 10);
+            BigInteger value = RadixConverter.toBigInteger(digits().iterator(), size, tables.source);
+            RadixConverter.write(value, tables.target, writer);
+        }
+        writer.flush();
+    }
+
+
+    // Створює список заданої основи з цифр digits[from..to)
+    static NumberListImpl fromDigits(int base, byte[] digits, int from, int to) {
+        NumberListImpl list = new NumberListImpl(base);
+        list.appendDigits(digits, from, to);
+        return list;
+    }
+
+    // Основа системи числення списку
+    int base() {
+        return base;
+    }
+
+    // Копіює цифри списку в масив, від старшої до молодшої
+    byte[] toDigitArray() {
+        byte[] digits = new byte[size];
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            digits[i] = current.data;
+            current = current.next;
+        }
+        return digits;
+    }
+
+    // Переймає вузли і ширину регістра щойно побудованого списку тієї ж основи, який далі не використовується
+    void adopt(NumberListImpl other) {
+        head = other.head;
+        tail = other.tail;
+        size = other.size;
+        width = other.width;
+        if (digitIndex != null) {
+            digitIndex = null;
+            enableDigitIndex();
+        }
+        modified();
+    }
+
+    // Додає числа до стовпчиків кінців (base^digitsPerLimb, від молодшого) за один
+    // прохід; кожен кінець збирається схемою Горнера з digitsPerLimb цифр. Списки
+    // обходяться поруч, кінець за кінцем: ланцюжки вузлів різних списків незалежні,
+    // тож процесор вибирає їх з пам'яті одночасно, а не список за списком
+    static void addLimbsTo(NumberListImpl[] lists, long[] columns, int digitBase, int digitsPerLimb) {
+        int n = lists.length;
+        Node[] cursors = new Node[n];
+        int[] tops = new int[n];
+        int top = -1;
+        for (int i = 0; i < n; i++) {
+            cursors[i] = lists[i].head;
+            tops[i] = lists[i].size == 0 ? -1 : (lists[i].size - 1) / digitsPerLimb;
+            top = Math.max(top, tops[i]);
+        }
+        for (int limb = top; limb >= 0; limb--) {
+            long column = 0;
+            for (int i = 0; i < n; i++) {
+                if (limb > tops[i]) {
+                    continue;
+                }
+                int count = limb == tops[i] ? lists[i].size - limb * digitsPerLimb : digitsPerLimb;
+                Node current = cursors[i];
+                long value = 0;
+                for (int j = 0; j < count; j++) {
+                    int digit = current.data;
+                    if (digit >= digitBase) {
+                        throw new IllegalArgumentException("Digit must be in range [0, " + (digitBase - 1) + "]");
+                    }
+                    value = value * digitBase + digit;
+                    current = current.next;
+                }
+                cursors[i] = current;
+                column += value;
+            }
+            columns[limb] += column;
+        }
+    }
+
+    // Додає цифри digits[from..to) у кінець списку за одну модифікацію
+    private void appendDigits(byte[] digits, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            if (digitIndex != null) {
+                digitIndex.appended(size + i - from, digits[i]);
+            }
+            if (journal != null) {
+                journal.inserted(size + i - from, digits[i]);
+            }
+            Node newNode = newNode(digits[i]);
+            if (head == null) {
+                head = newNode;
+            } else {
+                tail.next = newNode;
+            }
+            tail = newNode;
+        }
+        tail.next = head; // замикаємо в кільце
+
+        size += to - from;
+        modified();
     }
 
 
     /**
-     * Returns student's record book number, which has 4 decimal digits.
+     * Вмикає або вимикає зберігання кешованих подань числа через
+     * {@link SoftReference}, щоб збирач сміття міг звільнити їх за нестачі пам'яті.
+     * Діє на подання, закешовані після виклику.
      *
-     * @return student's record book number.
+     * @param soft - <tt>true</tt>, щоб кешувати через м'які посилання
      */
-    public static int getRecordBookNumber() {
-        return 7;
+    public static void setSoftViewCache(boolean soft) {
+        softViewCache = soft;
     }
 
+    // Повертає закешоване подання, якщо список не змінювався після його обчислення
+    private String cachedView(int kind) {
+        ViewCache cache = viewCache;
+        if (cache == null || cache.stamp != modCount) {
+            return null;
+        }
+        return cache.get(kind);
+    }
+
+    // Кешує подання для поточного modCount і повертає його
+    private String cacheView(int kind, String value) {
+        if (value.length() > MAX_CACHED_VIEW_LENGTH) {
+            return value;
+        }
+        if (viewCache == null || viewCache.stamp != modCount) {
+            viewCache = new ViewCache(modCount);
+        }
+        viewCache.put(kind, value, softViewCache);
+        return value;
+    }
 
     /**
-     * Переведення числа з вісімкової у десяткову систему числення.
-     * Не змінює поточний список.
+     * Задає, скільки звільнених вузлів кожен список зберігає для повторного
+     * використання замість створення нових. Значення 0 (за замовчуванням)
+     * вимикає пул: вузли, звільнені після ввімкнення, лишаються в пулі
+     * списку, доки їх не буде використано, тож пул варто вмикати лише для
+     * списків, що часто перебудовуються.
      *
-     * @return новий список у десятковій системі
+     * @param capacity - максимальна кількість вузлів у пулі одного списку
      */
-    public NumberListImpl changeScale() {
-        // отримуємо десяткове представлення числа
-        String decimalValue = toDecimalString();
+    public static void setNodePoolCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be non-negative");
+        }
+        nodePoolCapacity = capacity;
+    }
 
-        // створюємо новий список в альтернативній системі числення
-        NumberListImpl result = new NumberListImpl(ALTERNATIVE_BASE);
+    // Бере вузол з пулу або створює новий
+    private Node newNode(byte data) {
+        Node node = freeNodes;
+        if (node == null) {
+            return new Node(data);
+        }
+        freeNodes = node.next;
+        freeCount--;
+        node.data = data;
+        node.next = null;
+        return node;
+    }
 
-        if (decimalValue.equals("0")) {
-            result.add((byte) 0);
-            return result;
+    // Повертає вузол у пул, якщо в ньому є місце
+    private void release(Node node) {
+        if (freeCount < nodePoolCapacity) {
+            node.next = freeNodes;
+            freeNodes = node;
+            freeCount++;
         }
+    }
 
-        // переводимо десяткове число у альтернативну систему
-        BigInteger number = new BigInteger(decimalValue);
-        String numberInAltBase = number.toString(ALTERNATIVE_BASE);
+    // Віддає в пул вузли всього кільця (скільки вміщується) без обходу, якщо вміщуються всі
+    private void releaseRing() {
+        int room = nodePoolCapacity - freeCount;
+        if (room <= 0) {
+            return;
+        }
 
-        for (int i = 0; i < numberInAltBase.length(); i++) {
-            char ch = numberInAltBase.charAt(i);
-            byte digit;
-            if (ch >= '0' && ch <= '9') {
-                digit = (byte) (ch - '0');
-            } else if (ch >= 'a' && ch <= 'z') {
-                digit = (byte) (ch - 'a' + 10);
-            } else if (ch >= 'A' && ch <= 'Z') {
-                digit = (byte) (ch - 'A' + 10);
-            } else {
-                continue;
+        Node last = tail;
+        int released = size;
+        if (size > room) {
+            last = head;
+            for (int i = 1; i < room; i++) {
+                last = last.next;
             }
-            result.add(digit);
+            released = room;
         }
-
-        return result;
+        last.next = freeNodes;
+        freeNodes = head;
+        freeCount += released;
     }
 
+    // Вилучає вузол node з позиції position, що йде за previous, і повертає його в пул
+    private void unlink(Node previous, Node node, int position) {
+        checkResizable();
+        if (digitIndex != null) {
+            digitIndex.removed(position, node.data);
+        }
+        if (journal != null) {
+            journal.removed(position);
+        }
+        if (size == 1) {
+            head = null;
+            tail = null;
+        } else {
+            previous.next = node.next;
+            if (node == head) {
+                head = node.next;
+            }
+            if (node == tail) {
+                tail = previous;
+            }
+        }
+        size--;
+        release(node);
+        modified();
+    }
 
     /**
-     * Додавання двох чисел у вісімковій системі числення.
-     * Не змінює поточний список та аргумент.
-     *
-     * @param arg - друге число для додавання
-     * @return результат додавання
+     * Вмикає покажчик входжень цифр: кількість кожної цифри, її перша й остання
+     * позиції. Покажчик оновлюється всіма змінами списку, зокрема зсувами та
+     * обмінами (O(base) на зміну), а <tt>contains</tt> виконується за O(1),
+     * <tt>indexOf</tt>, <tt>lastIndexOf</tt> - за O(1) після першого запиту.
+     * Повторний виклик нічого не робить.
      */
-    public NumberListImpl additionalOperation(NumberList arg) {
-        if (arg == null) {
-            throw new IllegalArgumentException("Argument cannot be null");
+    public void enableDigitIndex() {
+        if (digitIndex != null) {
+            return;
         }
-
-        NumberListImpl result = new NumberListImpl(this.base);
-
-        int carry = 0; // перенос у наступний розряд
-        int i = this.size() - 1; // індекс для першого числа
-        int j = arg.size() - 1; // індекс для другого числа
-
-        // додаємо цифри справа наліво, як у стовпчик
-        while (i >= 0 || j >= 0 || carry > 0) {
-            int digit1 = i >= 0 ? this.get(i) : 0;
-            int digit2 = j >= 0 ? arg.get(j) : 0;
-
-            int sum = digit1 + digit2 + carry;
-            carry = sum / base; // перенос
-            int resultDigit = sum % base; // цифра результату
-
-            result.add(0, (byte) resultDigit); // додаємо на початок
-
-            i--;
-            j--;
+        DigitIndex index = new DigitIndex(base);
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            index.counts[current.data]++;
+            current = current.next;
         }
+        digitIndex = index;
+    }
 
-        return result;
+
+    /**
+     * Вимикає покажчик входжень цифр.
+     */
+    public void disableDigitIndex() {
+        digitIndex = null;
     }
 
 
     /**
-     * Повертає число у десятковій системі як рядок.
+     * Повертає кількість входжень цифри в число.
      *
-     * @return рядок з числом у десятковій системі
+     * @param digit - цифра
+     * @return кількість входжень; 0 для значень поза основою
      */
-    public String toDecimalString() {
-        if (isEmpty()) {
-            return "0";
+    public int countOf(byte digit) {
+        if (digit < 0 || digit >= base) {
+            return 0;
+        }
+        if (digitIndex != null) {
+            return digitIndex.counts[digit];
         }
 
-        // переводимо з нашої системи у десяткову
-        BigInteger decimal = BigInteger.ZERO;
-        BigInteger baseValue = BigInteger.valueOf(base);
+        int count = 0;
+        Node current = head;
+        for (int i = 0; i < size; i++) {
+            if (current.data == digit) {
+                count++;
+            }
+            current = current.next;
+        }
+        return count;
+    }
+
+    // Цифра, яку шукають у покажчику, або -1, якщо її в списку немає
+    private int indexedDigit(Object o) {
+        if (!(o instanceof Byte)) {
+            return -1;
+        }
+        byte digit = (Byte) o;
+        return digit >= 0 && digit < base && digitIndex.counts[digit] > 0 ? digit : -1;
+    }
 
+    // Обчислює невідомі перші й останні позиції всіх цифр одним проходом
+    private void refreshPositions() {
+        DigitIndex index = digitIndex;
+        int unknown = ~index.known & ((1 << base) - 1);
+        for (int digit = 0; digit < base; digit++) {
+            if ((unknown & (1 << digit)) != 0) {
+                index.first[digit] = -1;
+            }
+        }
         Node current = head;
         for (int i = 0; i < size; i++) {
-            decimal = decimal.multiply(baseValue).add(BigInteger.valueOf(current.data));
+            int digit = current.data;
+            if ((unknown & (1 << digit)) != 0) {
+                if (index.first[digit] < 0) {
+                    index.first[digit] = i;
+                }
+                index.last[digit] = i;
+            }
             current = current.next;
         }
+        index.known = (1 << base) - 1;
+    }
+
+    // Регістр фіксованої ширини не змінює розміру
+    private void checkResizable() {
+        if (width > 0) {
+            throw new UnsupportedOperationException("Fixed-width list cannot change size");
+        }
+    }
 
-        return decimal.toString();
+    // Фіксує модифікацію списку: ітератори стають недійсними, кеш подань скидається
+    private void modified() {
+        modCount++;
+        viewCache = null;
     }
 
 
@@ -288,6 +1919,11 @@ public class NumberListImpl implements NumberList {
             return "0";
         }
 
+        String cached = cachedView(VIEW_NATIVE);
+        if (cached != null) {
+            return cached;
+        }
+
         StringBuilder sb = new StringBuilder();
         Node current = head;
         for (int i = 0; i < size; i++) {
@@ -295,7 +1931,7 @@ public class NumberListImpl implements NumberList {
             current = current.next;
         }
 
-        return sb.toString();
+        return cacheView(VIEW_NATIVE, sb.toString());
     }
 
 
@@ -335,6 +1971,9 @@ public class NumberListImpl implements NumberList {
         if (!(o instanceof Byte)) {
             return false;
         }
+        if (digitIndex != null) {
+            return indexedDigit(o) >= 0;
+        }
 
         // перевіряємо чи є такий елемент у списку
         Node current = head;
@@ -355,6 +1994,24 @@ public class NumberListImpl implements NumberList {
     }
 
 
+    /**
+     * Повертає цифри списку як примітивний потік без упаковки в <tt>Byte</tt>.
+     * Сплітератор ділить кільце на рівні діапазони за позиціями, тому
+     * <tt>digits().parallel()</tt> справді розподіляє роботу між потоками.
+     *
+     * @return послідовний потік цифр від старшої до молодшої
+     */
+    public IntStream digits() {
+        return StreamSupport.intStream(new DigitSpliterator(), false);
+    }
+
+
+    @Override
+    public Spliterator<Byte> spliterator() {
+        return DigitSpliterators.boxed(new DigitSpliterator());
+    }
+
+
     @Override
     public Object[] toArray() {
         // перетворюємо список у масив
@@ -383,8 +2040,15 @@ public class NumberListImpl implements NumberList {
         if (e < 0 || e >= base) {
             throw new IllegalArgumentException("Digit must be in range [0, " + (base - 1) + "]");
         }
+        checkResizable();
 
-        Node newNode = new Node(e);
+        if (digitIndex != null) {
+            digitIndex.appended(size, e);
+        }
+        if (journal != null) {
+            journal.inserted(size, e);
+        }
+        Node newNode = newNode(e);
 
         if (isEmpty()) {
             // якщо список порожній, створюємо перший елемент
@@ -399,7 +2063,7 @@ public class NumberListImpl implements NumberList {
         }
 
         size++;
-        modCount++;
+        modified();
         return true;
     }
 
@@ -413,37 +2077,20 @@ public class NumberListImpl implements NumberList {
         if (isEmpty()) {
             return false;
         }
+        if (digitIndex != null && indexedDigit(o) < 0) {
+            return false; // такої цифри немає - прохід не потрібен
+        }
 
         byte target = (Byte) o;
 
-        // видаляємо голову списку
-        if (head.data == target) {
-            if (size == 1) {
-                head = null;
-                tail = null;
-            } else {
-                head = head.next;
-                tail.next = head; // підтримуємо кільце
-            }
-            size--;
-            modCount++;
-            return true;
-        }
-
-        // шукаємо елемент для видалення
-        Node current = head;
-        for (int i = 0; i < size - 1; i++) {
-            if (current.next.data == target) {
-                Node toRemove = current.next;
-                current.next = toRemove.next;
-                if (toRemove == tail) {
-                    tail = current;
-                }
-                size--;
-                modCount++;
+        // шукаємо елемент для видалення, починаючи з голови (її попередник - хвіст)
+        Node previous = tail;
+        for (int i = 0; i < size; i++) {
+            if (previous.next.data == target) {
+                unlink(previous, previous.next, i);
                 return true;
             }
-            current = current.next;
+            previous = previous.next;
         }
 
         return false;
@@ -531,10 +2178,20 @@ public class NumberListImpl implements NumberList {
 
     @Override
     public void clear() {
+        checkResizable();
+        if (head != null) {
+            releaseRing();
+        }
         head = null;
         tail = null;
         size = 0;
-        modCount++;
+        if (digitIndex != null) {
+            digitIndex.reset();
+        }
+        if (journal != null) {
+            journal.cleared();
+        }
+        modified();
     }
 
 
@@ -574,8 +2231,14 @@ public class NumberListImpl implements NumberList {
 
         // міняємо значення і повертаємо старе
         byte oldValue = current.data;
+        if (digitIndex != null) {
+            digitIndex.replaced(index, oldValue, element);
+        }
+        if (journal != null) {
+            journal.replaced(index, element);
+        }
         current.data = element;
-        modCount++;
+        modified();
 
         return oldValue;
     }
@@ -593,12 +2256,19 @@ public class NumberListImpl implements NumberList {
             throw new IllegalArgumentException("Digit must be in range [0, " + (base - 1) + "]");
         }
 
+        checkResizable();
         if (index == size) {
             add(element);
             return;
         }
 
-        Node newNode = new Node(element);
+        if (digitIndex != null) {
+            digitIndex.inserted(index, element);
+        }
+        if (journal != null) {
+            journal.inserted(index, element);
+        }
+        Node newNode = newNode(element);
 
         if (index == 0) {
             // вставка на початок
@@ -622,7 +2292,7 @@ public class NumberListImpl implements NumberList {
         }
 
         size++;
-        modCount++;
+        modified();
     }
 
 
@@ -632,33 +2302,14 @@ public class NumberListImpl implements NumberList {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
 
-        byte removed;
-
-        if (index == 0) {
-            // видалення голови
-            removed = head.data;
-            if (size == 1) {
-                head = null;
-                tail = null;
-            } else {
-                head = head.next;
-                tail.next = head;
-            }
-        } else {
-            // видалення з середини або кінця
-            Node current = head;
-            for (int i = 0; i < index - 1; i++) {
-                current = current.next;
-            }
-            removed = current.next.data;
-            current.next = current.next.next;
-            if (index == size - 1) {
-                tail = current;
-            }
+        // знаходимо попередника; для голови це хвіст
+        Node previous = tail;
+        for (int i = 0; i < index; i++) {
+            previous = previous.next;
         }
 
-        size--;
-        modCount++;
+        byte removed = previous.next.data;
+        unlink(previous, previous.next, index);
         return removed;
     }
 
@@ -669,6 +2320,17 @@ public class NumberListImpl implements NumberList {
             return -1;
         }
 
+        if (digitIndex != null) {
+            int digit = indexedDigit(o);
+            if (digit < 0) {
+                return -1;
+            }
+            if (!digitIndex.knows(digit)) {
+                refreshPositions();
+            }
+            return digitIndex.first[digit];
+        }
+
         // шукаємо перше входження елемента
         byte target = (Byte) o;
         Node current = head;
@@ -689,6 +2351,17 @@ public class NumberListImpl implements NumberList {
             return -1;
         }
 
+        if (digitIndex != null) {
+            int digit = indexedDigit(o);
+            if (digit < 0) {
+                return -1;
+            }
+            if (!digitIndex.knows(digit)) {
+                refreshPositions();
+            }
+            return digitIndex.last[digit];
+        }
+
         // шукаємо останнє входження елемента
         byte target = (Byte) o;
         int lastIndex = -1;
@@ -755,35 +2428,63 @@ public class NumberListImpl implements NumberList {
 
     @Override
     public void sortAscending() {
-        if (size <= 1) {
-            return;
-        }
-
-        // сортування бульбашкою за зростанням
-        for (int i = 0; i < size - 1; i++) {
-            for (int j = 0; j < size - i - 1; j++) {
-                if (get(j) > get(j + 1)) {
-                    swap(j, j + 1);
-                }
-            }
-        }
+        sort(true);
     }
 
 
     @Override
     public void sortDescending() {
+        sort(false);
+    }
+
+    // Сортування підрахунком за два проходи: цифр лише base різних значень,
+    // тож досить порахувати їх і переписати вузли по порядку
+    private void sort(boolean ascending) {
         if (size <= 1) {
             return;
         }
 
-        // сортування бульбашкою за спаданням
-        for (int i = 0; i < size - 1; i++) {
-            for (int j = 0; j < size - i - 1; j++) {
-                if (get(j) < get(j + 1)) {
-                    swap(j, j + 1);
+        int[] counts;
+        if (digitIndex != null) {
+            counts = digitIndex.counts.clone();
+        } else {
+            counts = new int[base];
+            Node current = head;
+            for (int i = 0; i < size; i++) {
+                counts[current.data]++;
+                current = current.next;
+            }
+        }
+
+        if (journal != null) {
+            journal.sortStarted(ascending);
+        }
+        try {
+            Node current = head;
+            int position = 0;
+            for (int k = 0; k < base; k++) {
+                byte digit = (byte) (ascending ? k : base - 1 - k);
+                int count = counts[digit];
+                if (count > 0 && digitIndex != null) {
+                    // після сортування крайні позиції кожної цифри відомі точно
+                    digitIndex.first[digit] = position;
+                    digitIndex.last[digit] = position + count - 1;
+                }
+                for (int n = 0; n < count; n++) {
+                    current.data = digit;
+                    current = current.next;
                 }
+                position += count;
+            }
+            if (digitIndex != null) {
+                digitIndex.known = (1 << base) - 1;
+            }
+        } finally {
+            if (journal != null) {
+                journal.sortFinished();
             }
         }
+        modified();
     }
 
 
@@ -793,13 +2494,19 @@ public class NumberListImpl implements NumberList {
             return;
         }
 
-        // циклічний зсув ліворуч - перший елемент стає останнім
-        byte first = head.data;
+        // циклічний зсув ліворуч - перший елемент стає останнім;
+        // у кільці досить зсунути голову і хвіст на один вузол
+        if (digitIndex != null) {
+            digitIndex.removed(0, head.data);
+            digitIndex.appended(size - 1, head.data);
+        }
+        if (journal != null) {
+            journal.shifted(true);
+        }
+        tail = head;
         head = head.next;
-        tail.data = first;
-        tail = tail.next;
 
-        modCount++;
+        modified();
     }
 
 
@@ -809,34 +2516,222 @@ public class NumberListImpl implements NumberList {
             return;
         }
 
-        byte last = tail.data;
-
         // знаходимо передостанній вузол
         Node current = head;
         for (int i = 0; i < size - 2; i++) {
             current = current.next;
         }
 
+        // у кільці досить зсунути голову на останній вузол, новий вузол не потрібен
+        if (digitIndex != null) {
+            digitIndex.removed(size - 1, tail.data);
+            digitIndex.inserted(0, tail.data);
+        }
+        if (journal != null) {
+            journal.shifted(false);
+        }
+        head = tail;
         tail = current;
 
-        // створюємо нову голову зі значенням останнього елемента
-        Node newHead = new Node(last);
-        newHead.next = head;
-        head = newHead;
-        tail.next = head;
+        modified();
+    }
 
-        modCount++;
+    // Сплітератор цифр діапазону [index, fence), що починається з вузла current
+    private class DigitSpliterator implements Spliterator.OfInt {
+        private Node current;
+        private int index;
+        private int fence; // -1, доки межу не прив'язано до розміру списку
+        private int expectedModCount;
+
+        DigitSpliterator() {
+            this.fence = -1;
+        }
+
+        private DigitSpliterator(Node current, int index, int fence, int expectedModCount) {
+            this.current = current;
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                current = head;
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int lo = index;
+            int hi = getFence();
+            if (hi - lo < 2 * DigitSpliterators.MIN_SPLIT) {
+                return null;
+            }
+
+            // доходимо до середини діапазону; префікс віддаємо іншому сплітератору
+            int mid = (lo + hi) >>> 1;
+            Node middle = current;
+            for (int i = lo; i < mid; i++) {
+                middle = middle.next;
+            }
+            DigitSpliterator prefix = new DigitSpliterator(current, lo, mid, expectedModCount);
+            current = middle;
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            checkForComodification();
+            action.accept(current.data);
+            current = current.next;
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int hi = getFence();
+            Node node = current;
+            for (int i = index; i < hi; i++) {
+                action.accept(node.data);
+                node = node.next;
+            }
+            current = node;
+            index = hi;
+            checkForComodification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return DigitSpliterators.CHARACTERISTICS;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    // Символьне подання цифр, що читає вузли з курсора останнього звернення
+    private class NativeView implements CharSequence {
+        private Node cursor;
+        private int cursorIndex;
+        private int expectedModCount = -1;
+
+        @Override
+        public int length() {
+            return size == 0 ? 1 : size;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+            }
+            if (size == 0) {
+                return '0';
+            }
+            if (expectedModCount != modCount || index < cursorIndex) {
+                cursor = head;
+                cursorIndex = 0;
+                expectedModCount = modCount;
+            }
+            for (; cursorIndex < index; cursorIndex++) {
+                cursor = cursor.next;
+            }
+            return Character.forDigit(cursor.data, Character.MAX_RADIX);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length());
+            }
+            StringBuilder sb = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                sb.append(charAt(i));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return NumberListImpl.this.toString();
+        }
+    }
+
+    // Десяткове подання, що переводить число під час першого звернення після зміни списку
+    private class DecimalView implements CharSequence {
+        private byte[] decimal;
+        private int expectedModCount;
+
+        private byte[] decimal() {
+            if (decimal == null || expectedModCount != modCount) {
+                decimal = size == 0 ? new byte[1] : RadixConverter.convert(toDigitArray(), 0, size, base, 10);
+                expectedModCount = modCount;
+            }
+            return decimal;
+        }
+
+        @Override
+        public int length() {
+            return decimal().length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            byte[] digits = decimal();
+            if (index < 0 || index >= digits.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + digits.length);
+            }
+            return (char) ('0' + digits[index]);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            byte[] digits = decimal();
+            if (start < 0 || end > digits.length || start > end) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + digits.length);
+            }
+            char[] chars = new char[end - start];
+            for (int i = start; i < end; i++) {
+                chars[i - start] = (char) ('0' + digits[i]);
+            }
+            return new String(chars);
+        }
+
+        @Override
+        public String toString() {
+            return toDecimalString();
+        }
     }
 
     // Ітератор для проходу по списку
     private class NumberListIterator implements Iterator<Byte> {
         private Node current;
+        private Node previous; // попередник current у кільці
         private Node lastReturned;
+        private Node beforeLastReturned; // попередник lastReturned
         private int position;
         private int expectedModCount;
 
         NumberListIterator() {
             current = head;
+            previous = tail;
             lastReturned = null;
             position = 0;
             expectedModCount = modCount;
@@ -854,7 +2749,9 @@ public class NumberListImpl implements NumberList {
                 throw new NoSuchElementException();
             }
 
+            beforeLastReturned = previous;
             lastReturned = current;
+            previous = current;
             current = current.next;
             position++;
             return lastReturned.data;
@@ -867,8 +2764,10 @@ public class NumberListImpl implements NumberList {
                 throw new IllegalStateException();
             }
 
-            // видаляємо останній повернутий елемент
-            NumberListImpl.this.remove((Object) lastReturned.data);
+            // видаляємо саме останній повернутий вузол, не шукаючи його від голови
+            unlink(beforeLastReturned, lastReturned, position - 1);
+            previous = beforeLastReturned;
+            position--;
             lastReturned = null;
             expectedModCount = modCount;
         }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Легкий реєстр метрик операцій над списками: лічильники викликів і
+ * гістограми тривалості з кошиками-степенями двійки (в наносекундах).
+ * Доповнює події Java Flight Recorder, коли запис JFR не ввімкнено.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class NumberListMetrics {
+
+    public static final String CHANGE_SCALE = "changeScale";
+    public static final String TO_DECIMAL_STRING = "toDecimalString";
+    public static final String ADDITIONAL_OPERATION = "additionalOperation";
+    public static final String DIVIDE = "divideAndRemainder";
+    public static final String MOD_POW = "modPow";
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+    public static final String CHECKPOINT = "checkpoint";
+
+    private static final ConcurrentHashMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
+
+    private NumberListMetrics() {
+    }
+
+    /**
+     * Latency statistics of single operation.
+     */
+    public static final class Timer {
+        private final String operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(64); // кошик i: [2^i, 2^(i+1)) нс
+
+        Timer(String operation) {
+            this.operation = operation;
+        }
+
+        void record(long nanos) {
+            nanos = Math.max(nanos, 1);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(nanos));
+        }
+
+        public String operation() {
+            return operation;
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long maxNanos() {
+            return maxNanos.get();
+        }
+
+        public long meanNanos() {
+            long n = count();
+            return n == 0 ? 0 : totalNanos() / n;
+        }
+
+        /**
+         * Returns upper bound of histogram bucket, containing given percentile.
+         *
+         * @param percentile - value in range (0, 100]
+         * @return latency upper bound in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long percentileNanos(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be in range (0, 100]");
+            }
+
+            long[] histogram = histogram();
+            long total = 0;
+            for (long bucket : histogram) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        /**
+         * Returns copy of histogram, where element i counts durations in [2^i, 2^(i+1)) ns.
+         *
+         * @return histogram buckets.
+         */
+        public long[] histogram() {
+            long[] copy = new long[buckets.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = buckets.get(i);
+            }
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return operation + "[count=" + count() + ", mean=" + meanNanos() + "ns, p99<="
+                    + percentileNanos(99) + "ns, max=" + maxNanos() + "ns]";
+        }
+    }
+
+    /**
+     * Returns statistics of operation, creating empty one if needed.
+     *
+     * @param operation - operation name.
+     * @return operation timer.
+     */
+    public static Timer timer(String operation) {
+        return TIMERS.computeIfAbsent(operation, Timer::new);
+    }
+
+    /**
+     * Returns snapshot of all timers, sorted by operation name.
+     *
+     * @return unmodifiable map of timers.
+     */
+    public static Map<String, Timer> timers() {
+        return Collections.unmodifiableMap(new TreeMap<>(TIMERS));
+    }
+
+    /**
+     * Enables or disables metrics collection.
+     *
+     * @param enable - <tt>false</tt> to stop recording new measurements.
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Drops all collected statistics.
+     */
+    public static void reset() {
+        TIMERS.clear();
+    }
+
+    // Фіксує тривалість операції
+    static void record(String operation, long nanos) {
+        if (enabled) {
+            timer(operation).record(nanos);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Фабричні методи, що вибирають подання числа за його вмістом.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class NumberLists {
+
+    /**
+     * Мінімальна середня довжина серії, з якої вигідне стиснене подання.
+     */
+    static final int MIN_AVERAGE_RUN = 8;
+
+    private NumberLists() {
+    }
+
+
+    /**
+     * Створює список за <b>десятковим</b> числом у рядковому записі,
+     * стиснений, якщо його вісімкові цифри утворюють довгі серії.
+     * Некоректне число дає порожній список.
+     *
+     * @param value - число у рядковому записі
+     * @return <tt>RunLengthNumberList</tt> або <tt>NumberListImpl</tt>
+     */
+    public static NumberList valueOf(String value) {
+        return compact(new NumberListImpl(value));
+    }
+
+
+    /**
+     * Повертає стиснену копію списку, якщо середня довжина серії однакових
+     * цифр не менша за {@link #MIN_AVERAGE_RUN}, інакше сам список.
+     *
+     * @param list - список цифр
+     * @return <tt>RunLengthNumberList</tt> з тими самими цифрами або <tt>list</tt>
+     */
+    public static NumberList compact(NumberList list) {
+        if (list instanceof RunLengthNumberList || list.size() < MIN_AVERAGE_RUN) {
+            return list;
+        }
+
+        int base = list instanceof NumberListImpl ? ((NumberListImpl) list).base()
+                : list instanceof AbstractNumberList ? ((AbstractNumberList) list).base() : 8;
+        byte[] digits = list instanceof NumberListImpl ? ((NumberListImpl) list).toDigitArray()
+                : list instanceof AbstractNumberList ? ((AbstractNumberList) list).toDigitArray() : null;
+        if (digits == null) {
+            return list;
+        }
+
+        int runs = RunLengthNumberList.countRuns(digits, 0, digits.length);
+        if ((long) runs * MIN_AVERAGE_RUN > digits.length) {
+            return list;
+        }
+        return RunLengthNumberList.fromDigits(base, digits, 0, digits.length);
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Список цифр, що зберігаються поза купою Java у {@link MemorySegment}.
+ * Цифри упаковано по дві в байт (по півбайта на цифру), тож підтримуються
+ * основи до 16. Пам'ять належить власній {@link Arena} списку і звільняється
+ * явно методом {@link #close()} (зручно через try-with-resources); після цього
+ * будь-яке звернення до цифр завершується {@link IllegalStateException}.
+ * Арена спільна, тому список можна читати з кількох потоків.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public class OffHeapNumberList extends AbstractNumberList implements AutoCloseable {
+
+    private static final int DEFAULT_BASE = 8; // вісімкова система
+    private static final int ALTERNATIVE_BASE = 10; // десяткова система
+    private static final long MIN_CAPACITY = 64; // цифр
+
+    private final int base;
+    private Arena arena;
+    private MemorySegment segment;
+    private long capacity; // скільки цифр вміщує сегмент
+    private long start; // позиція першої цифри в сегменті (у півбайтах)
+    private int size;
+
+    /**
+     * Створює порожній список у вісімковій системі.
+     */
+    public OffHeapNumberList() {
+        this(DEFAULT_BASE);
+    }
+
+    /**
+     * Створює порожній список у заданій системі числення.
+     *
+     * @param base - основа системи числення, від 2 до 16
+     */
+    public OffHeapNumberList(int base) {
+        this(base, MIN_CAPACITY);
+    }
+
+    private OffHeapNumberList(int base, long capacity) {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Base must be in range [2, 16]");
+        }
+        this.base = base;
+        allocate(Math.max(capacity, MIN_CAPACITY));
+    }
+
+    /**
+     * Створює список з цифр іншого списку (у його системі числення, якщо
+     * вона відома, інакше у вісімковій). Цифри <tt>NumberListImpl</tt> і
+     * інших списків пакету копіюються одним масивом.
+     *
+     * @param source - список, цифри якого копіюються
+     */
+    public OffHeapNumberList(NumberList source) {
+        this(source instanceof NumberListImpl ? ((NumberListImpl) source).base()
+                : source instanceof AbstractNumberList ? ((AbstractNumberList) source).base() : DEFAULT_BASE,
+                source.size());
+        byte[] digits;
+        if (source instanceof NumberListImpl) {
+            digits = ((NumberListImpl) source).toDigitArray();
+        } else if (source instanceof AbstractNumberList) {
+            digits = ((AbstractNumberList) source).toDigitArray();
+        } else {
+            digits = new byte[source.size()];
+            int i = 0;
+            for (Byte digit : source) {
+                digits[i++] = checkDigit(digit);
+            }
+        }
+        appendDigits(digits);
+    }
+
+    /**
+     * Constructs new <tt>OffHeapNumberList</tt> by <b>decimal</b> number
+     * in string notation. Incorrect number produces empty list.
+     *
+     * @param value - number in string notation.
+     */
+    public OffHeapNumberList(String value) {
+        this(new NumberListImpl(value));
+    }
+
+
+    /**
+     * Переведення числа у десяткову систему числення.
+     * Не змінює поточний список.
+     *
+     * @return новий список поза купою у десятковій системі
+     */
+    public OffHeapNumberList changeScale() {
+        byte[] digits = isEmpty()
+                ? new byte[1]
+                : RadixConverter.convert(toDigitArray(), 0, size, base, ALTERNATIVE_BASE);
+
+        OffHeapNumberList result = new OffHeapNumberList(ALTERNATIVE_BASE, digits.length);
+        result.appendDigits(digits);
+        return result;
+    }
+
+
+    /**
+     * Додавання двох чисел. Не змінює поточний список та аргумент.
+     *
+     * @param arg - друге число для додавання
+     * @return результат додавання у новому списку поза купою
+     */
+    public OffHeapNumberList additionalOperation(NumberList arg) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+
+        byte[] other = new byte[arg.size()];
+        int k = 0;
+        for (Byte digit : arg) {
+            other[k++] = checkDigit(digit);
+        }
+
+        // результат пишемо справа наліво, залишаючи зліва місце для переносу
+        int length = Math.max(size, other.length);
+        OffHeapNumberList result = new OffHeapNumberList(base, length + 1);
+        result.size = length + 1;
+
+        int carry = 0;
+        int i = size - 1;
+        int j = other.length - 1;
+        for (int position = length; position > 0; position--, i--, j--) {
+            int sum = (i >= 0 ? digitAt(i) : 0) + (j >= 0 ? other[j] : 0) + carry;
+            carry = sum / base;
+            result.setDigitAt(position, (byte) (sum % base));
+        }
+
+        if (carry > 0) {
+            result.setDigitAt(0, (byte) carry);
+        } else if (length > 0) {
+            result.removeDigitAt(0); // лише зсуває початок, без копіювання
+        } else {
+            result.size = 0;
+        }
+        return result;
+    }
+
+
+    /**
+     * Звільняє пам'ять поза купою. Повторний виклик нічого не робить.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+
+    @Override
+    int base() {
+        return base;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    byte digitAt(int index) {
+        long nibble = start + index;
+        byte packed = segment.get(ValueLayout.JAVA_BYTE, nibble >>> 1);
+        return (byte) ((nibble & 1) == 0 ? packed & 0x0F : (packed >>> 4) & 0x0F);
+    }
+
+    @Override
+    void setDigitAt(int index, byte digit) {
+        long nibble = start + index;
+        long offset = nibble >>> 1;
+        byte packed = segment.get(ValueLayout.JAVA_BYTE, offset);
+        packed = (nibble & 1) == 0
+                ? (byte) ((packed & 0xF0) | digit)
+                : (byte) ((packed & 0x0F) | (digit << 4));
+        segment.set(ValueLayout.JAVA_BYTE, offset, packed);
+    }
+
+    @Override
+    void insertDigitAt(int index, byte digit) {
+        if (index == 0 && start > 0) {
+            // вставка на початок - достатньо зсунути початок ліворуч
+            start--;
+            size++;
+            setDigitAt(0, digit);
+            return;
+        }
+
+        ensureCapacity(start + size + 1);
+        size++;
+        for (int i = size - 1; i > index; i--) {
+            setDigitAt(i, digitAt(i - 1));
+        }
+        setDigitAt(index, digit);
+    }
+
+    @Override
+    byte removeDigitAt(int index) {
+        byte removed = digitAt(index);
+        if (index == 0) {
+            start++;
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                setDigitAt(i, digitAt(i + 1));
+            }
+        }
+        size--;
+        if (size == 0) {
+            start = 0;
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        start = 0;
+        modified();
+    }
+
+    // Дописує цифри в кінець числа, по дві в байт, де півбайти вирівняно
+    private void appendDigits(byte[] digits) {
+        ensureCapacity(start + size + digits.length);
+        int i = 0;
+        if (((start + size) & 1) != 0 && i < digits.length) {
+            setDigitAt(size++, digits[i++]);
+        }
+        long offset = (start + size) >>> 1;
+        for (; i + 1 < digits.length; i += 2) {
+            segment.set(ValueLayout.JAVA_BYTE, offset++, (byte) (digits[i] | digits[i + 1] << 4));
+            size += 2;
+        }
+        if (i < digits.length) {
+            setDigitAt(size++, digits[i]);
+        }
+    }
+
+    // Виділяє новий сегмент на capacity цифр у новій арені
+    private void allocate(long capacity) {
+        Arena newArena = Arena.ofShared();
+        MemorySegment newSegment = newArena.allocate((capacity + 1) / 2 + 1);
+        newSegment.fill((byte) 0);
+        if (segment != null) {
+            // переносимо цифри на початок нового сегмента
+            long first = start >>> 1;
+            long bytes = ((start + size + 1) >>> 1) - first + 1;
+            MemorySegment.copy(segment, first, newSegment, 0, Math.min(bytes, segment.byteSize() - first));
+            start &= 1;
+            arena.close();
+        }
+        arena = newArena;
+        segment = newSegment;
+        this.capacity = capacity;
+    }
+
+    private void ensureCapacity(long nibbles) {
+        if (nibbles > capacity) {
+            allocate(Math.max(nibbles, capacity * 2));
+        }
+    }
+}
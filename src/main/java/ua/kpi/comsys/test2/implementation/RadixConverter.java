@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import ua.kpi.comsys.test2.implementation.RadixPowerCache.PowerTable;
+import ua.kpi.comsys.test2.implementation.RadixPowerCache.Tables;
+
+/**
+ * Переведення масивів цифр між системами числення методом "поділяй і володарюй".
+ * Число розбивається на половини за степенями base^(L * 2^k) зі спільного
+ * {@link RadixPowerCache}, а блоки до L цифр обробляються арифметикою <tt>long</tt>.
+ * Цифри зберігаються від старшої до молодшої, як і в списках.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class RadixConverter {
+
+    private static final byte[] ZEROS = new byte[64];
+
+    private RadixConverter() {
+    }
+
+    /**
+     * Приймач цифр, що видаються порціями від старшої до молодшої.
+     */
+    interface DigitSink {
+        void accept(byte[] digits, int from, int to) throws IOException;
+    }
+
+    /**
+     * Переводить цифри digits[from..to) з sourceBase у targetBase.
+     * Результат не містить провідних нулів; нуль подається однією цифрою 0.
+     */
+    static byte[] convert(byte[] digits, int from, int to, int sourceBase, int targetBase) {
+        Tables tables = RadixPowerCache.tables(sourceBase, targetBase);
+        return toDigits(toBigInteger(digits, from, to, tables.source), tables.target);
+    }
+
+    /**
+     * Обчислює значення цифр digits[from..to) в основі, заданій таблицею степенів.
+     */
+    static BigInteger toBigInteger(byte[] digits, int from, int to, PowerTable powers) {
+        int length = to - from;
+        int leaf = powers.digitsPerLong;
+        if (length <= leaf) {
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                value = value * powers.base + digits[i];
+            }
+            return BigInteger.valueOf(value);
+        }
+
+        // молодша половина містить L * 2^k цифр - найбільший такий блок, менший за довжину
+        int k = 0;
+        while ((long) leaf << (k + 1) < length) {
+            k++;
+        }
+        int split = to - (leaf << k);
+        BigInteger high = toBigInteger(digits, from, split, powers);
+        BigInteger low = toBigInteger(digits, split, to, powers);
+        return high.multiply(powers.power(k)).add(low);
+    }
+
+    /**
+     * Обчислює значення length цифр, що видаються ітератором від старшої.
+     * Цифри одразу складаються в блоки по L, тож проміжний масив займає
+     * 8 байтів на L цифр замість байта на цифру.
+     */
+    static BigInteger toBigInteger(PrimitiveIterator.OfInt digits, int length, PowerTable powers) {
+        int leaf = powers.digitsPerLong;
+        long[] leaves = new long[Math.max(1, (length + leaf - 1) / leaf)];
+        int head = length - (leaves.length - 1) * leaf; // цифр у старшому, неповному блоці
+        for (int i = 0; i < leaves.length; i++) {
+            long value = 0;
+            for (int n = i == 0 ? head : leaf; n > 0; n--) {
+                value = value * powers.base + digits.nextInt();
+            }
+            leaves[i] = value;
+        }
+        return fromLeaves(leaves, 0, leaves.length, powers);
+    }
+
+    // Значення блоків leaves[from..to), кожен з яких, крім старшого, має рівно L цифр
+    private static BigInteger fromLeaves(long[] leaves, int from, int to, PowerTable powers) {
+        int count = to - from;
+        if (count == 1) {
+            return BigInteger.valueOf(leaves[from]);
+        }
+        int k = 0;
+        while (1 << (k + 1) < count) {
+            k++;
+        }
+        int split = to - (1 << k);
+        return fromLeaves(leaves, from, split, powers).multiply(powers.power(k))
+                .add(fromLeaves(leaves, split, to, powers));
+    }
+
+    /**
+     * Розкладає невід'ємне число на цифри в основі, заданій таблицею степенів.
+     */
+    static byte[] toDigits(BigInteger value, PowerTable powers) {
+        if (value.signum() == 0) {
+            return new byte[1];
+        }
+
+        // верхня оцінка кількості цифр: bitLength / log2(base) + 1
+        double bitsPerDigit = Math.log(powers.base) / Math.log(2);
+        int width = (int) (value.bitLength() / bitsPerDigit) + 2;
+        byte[] out = new byte[width];
+        fill(value, out, width, width, powers);
+
+        int first = 0;
+        while (first < width - 1 && out[first] == 0) {
+            first++;
+        }
+        if (first == 0) {
+            return out;
+        }
+        byte[] trimmed = new byte[width - first];
+        System.arraycopy(out, first, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    /**
+     * Видає цифри невід'ємного числа в основі таблиці степенів у приймач,
+     * від старшої до молодшої, без масиву всіх цифр: старша частина
+     * розкладу обробляється раніше за молодшу, а блоки до L цифр
+     * проходять через буфер довжини L.
+     */
+    static void write(BigInteger value, PowerTable powers, DigitSink sink) throws IOException {
+        byte[] leaf = new byte[powers.digitsPerLong];
+        if (value.signum() == 0) {
+            sink.accept(leaf, 0, 1);
+            return;
+        }
+        double bitsPerDigit = Math.log(powers.base) / Math.log(2);
+        int width = (int) (value.bitLength() / bitsPerDigit) + 2;
+        write(value, width, false, powers, leaf, sink);
+    }
+
+    // Видає width цифр числа value; без padded провідні нулі пропускаються
+    private static void write(BigInteger value, int width, boolean padded, PowerTable powers,
+                              byte[] leaf, DigitSink sink) throws IOException {
+        int leafWidth = powers.digitsPerLong;
+        if (width <= leafWidth || value.compareTo(powers.power(0)) < 0) {
+            int count = 0;
+            for (long rest = value.longValue(); rest != 0; rest /= powers.base) {
+                leaf[leafWidth - 1 - count++] = (byte) (rest % powers.base);
+            }
+            // нулі, що не вміщуються в буфер перед цифрами, видаються окремо
+            int zeros = padded ? width - count : 0;
+            while (zeros > leafWidth - count) {
+                int chunk = Math.min(zeros - (leafWidth - count), ZEROS.length);
+                sink.accept(ZEROS, 0, chunk);
+                zeros -= chunk;
+            }
+            Arrays.fill(leaf, leafWidth - count - zeros, leafWidth - count, (byte) 0);
+            sink.accept(leaf, leafWidth - count - zeros, leafWidth);
+            return;
+        }
+
+        int k = 0;
+        while ((long) leafWidth << (k + 1) < width) {
+            k++;
+        }
+        int lowWidth = leafWidth << k;
+        BigInteger[] parts = value.divideAndRemainder(powers.power(k));
+        if (!padded && parts[0].signum() == 0) {
+            write(parts[1], lowWidth, false, powers, leaf, sink);
+        } else {
+            write(parts[0], width - lowWidth, padded, powers, leaf, sink);
+            write(parts[1], lowWidth, true, powers, leaf, sink);
+        }
+    }
+
+    /**
+     * Рядок із цифр масиву.
+     */
+    static String digitString(byte[] digits) {
+        char[] chars = new char[digits.length];
+        for (int i = 0; i < digits.length; i++) {
+            chars[i] = Character.forDigit(digits[i], Character.MAX_RADIX);
+        }
+        return new String(chars);
+    }
+
+    // Записує width цифр числа value (з провідними нулями) так, щоб остання опинилась в out[end - 1]
+    private static void fill(BigInteger value, byte[] out, int end, int width, PowerTable powers) {
+        if (value.signum() == 0) {
+            return; // масив уже заповнений нулями
+        }
+
+        int leaf = powers.digitsPerLong;
+        if (width <= leaf || value.compareTo(powers.power(0)) < 0) {
+            long rest = value.longValue();
+            for (int i = end - 1; rest != 0; i--) {
+                out[i] = (byte) (rest % powers.base);
+                rest /= powers.base;
+            }
+            return;
+        }
+
+        int k = 0;
+        while ((long) leaf << (k + 1) < width) {
+            k++;
+        }
+        int lowWidth = leaf << k;
+        BigInteger[] parts = value.divideAndRemainder(powers.power(k));
+        fill(parts[1], out, end, lowWidth, powers);
+        fill(parts[0], out, end - lowWidth, width - lowWidth, powers);
+    }
+}
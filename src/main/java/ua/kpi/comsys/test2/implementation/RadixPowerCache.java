@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Спільний для всіх списків кеш таблиць степенів основ систем числення.
+ * Для кожної пари (вихідна основа, цільова основа) зберігає степені обох
+ * основ виду base^(L * 2^k), де L - кількість цифр, що вміщується в <tt>long</tt>.
+ * Таблиці будуються ліниво, а найдавніше використані пари витісняються,
+ * коли кеш перевищує обмеження на кількість пар або сумарний розмір степенів.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class RadixPowerCache {
+
+    private static final int MAX_PAIRS = 16; // максимальна кількість пар основ
+    private static final long MAX_CACHED_BITS = 1L << 28; // ~32 МБ степенів у сумі
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    // пари основ у порядку доступу (LRU), ключ - sourceBase * 64 + targetBase
+    private static final LinkedHashMap<Integer, Tables> PAIRS = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBits = 0; // сумарний розмір усіх степенів, під монітором PAIRS
+
+    private RadixPowerCache() {
+    }
+
+    // Таблиці степенів для пари основ
+    static final class Tables {
+        final PowerTable source;
+        final PowerTable target;
+
+        Tables(int sourceBase, int targetBase) {
+            source = new PowerTable(sourceBase);
+            target = new PowerTable(targetBase);
+        }
+    }
+
+    // Степені однієї основи: powers[k] = base^(L * 2^k)
+    static final class PowerTable {
+        final int base;
+        final int digitsPerLong; // L - скільки цифр вміщується в long
+        private BigInteger[] powers = new BigInteger[4];
+        private int count;
+        private volatile long bits; // сумарний розмір добудованих степенів
+        private volatile boolean evicted; // таблицю вже витіснено з кешу
+
+        PowerTable(int base) {
+            this.base = base;
+            long power = 1;
+            int digits = 0;
+            while (power <= Long.MAX_VALUE / base) {
+                power *= base;
+                digits++;
+            }
+            this.digitsPerLong = digits;
+            powers[0] = BigInteger.valueOf(power);
+            count = 1;
+        }
+
+        /**
+         * Повертає base^(L * 2^k), добудовуючи таблицю за потреби.
+         */
+        BigInteger power(int k) {
+            long grown = 0;
+            BigInteger power;
+            synchronized (this) {
+                if (k < count) {
+                    HITS.increment();
+                    return powers[k];
+                }
+                while (count <= k) {
+                    if (count == powers.length) {
+                        BigInteger[] larger = new BigInteger[powers.length * 2];
+                        System.arraycopy(powers, 0, larger, 0, count);
+                        powers = larger;
+                    }
+                    powers[count] = powers[count - 1].multiply(powers[count - 1]);
+                    grown += powers[count].bitLength();
+                    count++;
+                    MISSES.increment();
+                }
+                bits += grown;
+                power = powers[k];
+            }
+            // облік розміру - поза монітором таблиці, щоб не тримати два монітори одночасно
+            RadixPowerCache.grown(this, grown);
+            return power;
+        }
+    }
+
+    /**
+     * Повертає таблиці степенів для пари основ, створюючи їх за потреби.
+     */
+    static Tables tables(int sourceBase, int targetBase) {
+        Integer key = sourceBase * 64 + targetBase;
+        synchronized (PAIRS) {
+            Tables tables = PAIRS.get(key);
+            if (tables == null) {
+                tables = new Tables(sourceBase, targetBase);
+                PAIRS.put(key, tables);
+                evict(tables);
+            }
+            return tables;
+        }
+    }
+
+    // Враховує нові степені та витісняє найдавніше використані пари
+    private static void grown(PowerTable table, long bits) {
+        synchronized (PAIRS) {
+            if (table.evicted) {
+                return;
+            }
+            cachedBits += bits;
+            evict(null);
+        }
+    }
+
+    private static void evict(Tables keep) {
+        Iterator<Map.Entry<Integer, Tables>> it = PAIRS.entrySet().iterator();
+        while (it.hasNext() && (PAIRS.size() > MAX_PAIRS || cachedBits > MAX_CACHED_BITS)) {
+            Tables eldest = it.next().getValue();
+            if (eldest == keep) {
+                continue;
+            }
+            cachedBits -= eldest.source.bits + eldest.target.bits;
+            eldest.source.evicted = true;
+            eldest.target.evicted = true;
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns number of power lookups served from the cache.
+     *
+     * @return cache hit count.
+     */
+    public static long hitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns number of powers that had to be computed.
+     *
+     * @return cache miss count.
+     */
+    public static long missCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Returns number of (source base, target base) pairs currently cached.
+     *
+     * @return cached pair count.
+     */
+    public static int size() {
+        synchronized (PAIRS) {
+            return PAIRS.size();
+        }
+    }
+
+    /**
+     * Drops all cached power tables and resets statistics.
+     */
+    public static void clear() {
+        synchronized (PAIRS) {
+            for (Tables tables : PAIRS.values()) {
+                tables.source.evicted = true;
+                tables.target.evicted = true;
+            }
+            PAIRS.clear();
+            cachedBits = 0;
+        }
+        HITS.reset();
+        MISSES.reset();
+    }
+}
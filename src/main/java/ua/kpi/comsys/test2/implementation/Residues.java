@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+/**
+ * Крок схеми Горнера за малим модулем: r = (r * multiplier + chunk) mod m,
+ * де chunk - група цифр, а multiplier - основа в степені довжини групи.
+ * Для модулів до 2^32 ділення замінено множенням на обернене
+ * ({@link Math#unsignedMultiplyHigh}), для 2^61 - 1 - згортанням 128-бітного
+ * добутку, для решти - діленням 128-бітного добутку на нормалізований модуль
+ * через обернене (Möller, Granlund: "Improved division by invariant integers").
+ * Жоден крок не створює об'єктів.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+final class Residues {
+
+    static final long MERSENNE_61 = (1L << 61) - 1;
+    static final long SMALL_MODULUS = 1L << 32;
+    static final long MAX_CHUNK = 1L << 31; // multiplier і chunk не перевищують
+
+    private Residues() {
+    }
+
+    /**
+     * Кількість цифр у групі: найбільше k, для якого base^k не перевищує 2^31.
+     */
+    static int chunkDigits(int base) {
+        int k = 0;
+        for (long power = base; power <= MAX_CHUNK; power *= base) {
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * base^k без перевірки переповнення.
+     */
+    static long power(int base, int k) {
+        long power = 1;
+        for (int i = 0; i < k; i++) {
+            power *= base;
+        }
+        return power;
+    }
+
+    /**
+     * Обернене для кроку: floor((2^64 - 1) / m) для модулів до 2^32,
+     * floor((2^128 - 1) / d) - 2^64 для решти, де d - модуль, зсунутий
+     * до старшого біта.
+     *
+     * @throws ArithmeticException якщо модуль не додатний
+     */
+    static long inverse(long modulus) {
+        if (modulus <= 0) {
+            throw new ArithmeticException("Modulus must be positive: " + modulus);
+        }
+        if (modulus <= SMALL_MODULUS || modulus == MERSENNE_61) {
+            return Long.divideUnsigned(-1L, modulus);
+        }
+
+        // ((2^64 - 1 - d) * 2^64 + 2^64 - 1) / d діленням стовпчиком по бітах;
+        // обчислюється один раз на модуль, тож цикл тут не шкодить
+        long d = modulus << Long.numberOfLeadingZeros(modulus);
+        long rest = ~d;
+        long quotient = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            boolean overflow = rest < 0;
+            rest = rest << 1 | 1;
+            quotient <<= 1;
+            if (overflow || Long.compareUnsigned(rest, d) >= 0) {
+                rest -= d;
+                quotient |= 1;
+            }
+        }
+        return quotient;
+    }
+
+    /**
+     * (r * multiplier + chunk) mod m для r < m.
+     */
+    static long step(long r, long multiplier, long chunk, long modulus, long inverse) {
+        if (modulus <= SMALL_MODULUS) {
+            long x = r * multiplier + chunk; // < 2^32 * 2^31 + 2^31
+            x -= Math.unsignedMultiplyHigh(x, inverse) * modulus;
+            return x >= modulus ? x - modulus : x;
+        }
+        if (modulus == MERSENNE_61) {
+            // 2^61 = 1 (mod m): старші біти добутку додаються до молодших
+            long high = Math.multiplyHigh(r, multiplier);
+            long low = r * multiplier;
+            long x = (high << 3 | low >>> 61) + (low & MERSENNE_61) + chunk;
+            x = (x & MERSENNE_61) + (x >>> 61);
+            return x >= MERSENNE_61 ? x - MERSENNE_61 : x;
+        }
+
+        // x = r * multiplier + chunk < m * 2^31 + 2^31 як 128-бітне high:low
+        long low = r * multiplier;
+        long high = Math.multiplyHigh(r, multiplier);
+        long x = low + chunk;
+        if (Long.compareUnsigned(x, low) < 0) {
+            high++;
+        }
+
+        // нормалізуємо: d = m * 2^shift має старший біт, а старша половина
+        // зсунутого x лишається меншою за d
+        int shift = Long.numberOfLeadingZeros(modulus);
+        long d = modulus << shift;
+        long u1 = high << shift | x >>> (Long.SIZE - shift);
+        long u0 = x << shift;
+
+        // частка з точністю до одиниці через обернене, далі одна поправка
+        long q0 = inverse * u1;
+        long q1 = Math.unsignedMultiplyHigh(inverse, u1) + u1 + 1;
+        q0 += u0;
+        if (Long.compareUnsigned(q0, u0) < 0) {
+            q1++;
+        }
+        long rest = u0 - q1 * d;
+        if (Long.compareUnsigned(rest, q0) > 0) {
+            rest += d;
+        }
+        if (Long.compareUnsigned(rest, d) >= 0) {
+            rest -= d;
+        }
+        return rest >>> shift;
+    }
+}
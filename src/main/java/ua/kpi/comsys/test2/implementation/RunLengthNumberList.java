@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Список цифр у стисненому вигляді: послідовність серій однакових цифр.
+ * Для кожної серії зберігається цифра і накопичений кінець (індекс після
+ * останньої цифри серії), тож доступ за індексом - двійковий пошук, а пам'ять,
+ * ітерація, додавання та зсуви коштують пропорційно кількості серій, а не цифр.
+ * Вигідний для чисел на кшталт 1 з мільйоном нулів; вибирається автоматично
+ * через {@link NumberLists#compact(NumberList)}.
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public class RunLengthNumberList extends AbstractNumberList {
+
+    private static final int DEFAULT_BASE = 8; // вісімкова система
+    private static final int ALTERNATIVE_BASE = 10; // десяткова система
+
+    private final int base;
+    private byte[] runDigits = new byte[8];
+    private int[] runEnds = new int[8]; // runEnds[r] - індекс після останньої цифри серії r
+    private int runs;
+
+    /**
+     * Створює порожній список у вісімковій системі.
+     */
+    public RunLengthNumberList() {
+        this(DEFAULT_BASE);
+    }
+
+    /**
+     * Створює порожній список у заданій системі числення.
+     *
+     * @param base - основа системи числення, від 2 до 16
+     */
+    public RunLengthNumberList(int base) {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Base must be in range [2, 16]");
+        }
+        this.base = base;
+    }
+
+    /**
+     * Створює стиснений список з цифр іншого списку (у його системі числення,
+     * якщо вона відома, інакше у вісімковій).
+     *
+     * @param source - список, цифри якого копіюються
+     */
+    public RunLengthNumberList(NumberList source) {
+        this(source, source instanceof NumberListImpl ? ((NumberListImpl) source).base()
+                : source instanceof AbstractNumberList ? ((AbstractNumberList) source).base() : DEFAULT_BASE);
+    }
+
+    // Копія списку з цифрами, перевіреними для основи base
+    private RunLengthNumberList(NumberList source, int base) {
+        this(base);
+        for (Byte digit : source) {
+            appendRun(checkDigit(digit), 1);
+        }
+    }
+
+    /**
+     * Constructs new <tt>RunLengthNumberList</tt> by <b>decimal</b> number
+     * in string notation. Incorrect number produces empty list.
+     *
+     * @param value - number in string notation.
+     */
+    public RunLengthNumberList(String value) {
+        this(new NumberListImpl(value));
+    }
+
+    // Стиснений список з цифр digits[from..to)
+    static RunLengthNumberList fromDigits(int base, byte[] digits, int from, int to) {
+        RunLengthNumberList list = new RunLengthNumberList(base);
+        for (int i = from; i < to; i++) {
+            list.appendRun(digits[i], 1);
+        }
+        return list;
+    }
+
+    // Кількість серій у цифрах digits[from..to)
+    static int countRuns(byte[] digits, int from, int to) {
+        int count = from < to ? 1 : 0;
+        for (int i = from + 1; i < to; i++) {
+            if (digits[i] != digits[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Дописує в кінець числа count однакових цифр за O(1).
+     *
+     * @param digit - цифра, менша за основу
+     * @param count - кількість повторень
+     */
+    public void appendRun(byte digit, int count) {
+        checkDigit(digit);
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be non-negative: " + count);
+        }
+        if (count == 0) {
+            return;
+        }
+
+        int size = size();
+        if (size > Integer.MAX_VALUE - count) {
+            throw new IllegalStateException("List is too large");
+        }
+        if (runs > 0 && runDigits[runs - 1] == digit) {
+            runEnds[runs - 1] += count;
+        } else {
+            insertRun(runs, digit, size + count);
+        }
+        modified();
+    }
+
+    /**
+     * Повертає кількість серій однакових цифр.
+     *
+     * @return кількість серій
+     */
+    public int runCount() {
+        return runs;
+    }
+
+
+    /**
+     * Переведення числа у десяткову систему числення.
+     * Не змінює поточний список.
+     *
+     * @return новий стиснений список у десятковій системі
+     */
+    public RunLengthNumberList changeScale() {
+        byte[] digits = isEmpty()
+                ? new byte[1]
+                : RadixConverter.toDigits(value(), RadixPowerCache.tables(base, ALTERNATIVE_BASE).target);
+        return fromDigits(ALTERNATIVE_BASE, digits, 0, digits.length);
+    }
+
+
+    /**
+     * Додавання двох чисел. Не змінює поточний список та аргумент.
+     * Серії обох доданків проходяться від молодших розрядів: на відрізку,
+     * де обидві цифри сталі, перенос стабілізується не пізніше другої позиції,
+     * тож кожен відрізок дає щонайбільше дві серії результату.
+     *
+     * @param arg - друге число для додавання
+     * @return результат додавання у новому стисненому списку
+     */
+    public RunLengthNumberList additionalOperation(NumberList arg) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        RunLengthNumberList other = arg instanceof RunLengthNumberList && ((RunLengthNumberList) arg).base <= base
+                ? (RunLengthNumberList) arg
+                : new RunLengthNumberList(arg, base);
+
+        // серії суми накопичуємо від молодшої: цифра і довжина
+        byte[] sumDigits = new byte[2 * (runs + other.runs) + 1]; // до двох серій на відрізок
+        int[] sumLengths = new int[sumDigits.length];
+        int sumRuns = 0;
+
+        int i = runs - 1;
+        int j = other.runs - 1;
+        int restA = i >= 0 ? runLength(i) : 0;
+        int restB = j >= 0 ? other.runLength(j) : 0;
+        int carry = 0;
+        while (i >= 0 || j >= 0) {
+            int a = i >= 0 ? runDigits[i] : 0;
+            int b = j >= 0 ? other.runDigits[j] : 0;
+            int length = i < 0 ? restB : j < 0 ? restA : Math.min(restA, restB);
+
+            for (int left = length; left > 0; ) {
+                int sum = a + b + carry;
+                int next = sum / base;
+                int stretch = next == carry ? left : 1;
+                byte digit = (byte) (sum % base);
+                if (sumRuns > 0 && sumDigits[sumRuns - 1] == digit) {
+                    sumLengths[sumRuns - 1] += stretch;
+                } else {
+                    sumDigits[sumRuns] = digit;
+                    sumLengths[sumRuns++] = stretch;
+                }
+                carry = next;
+                left -= stretch;
+            }
+
+            if (i >= 0 && (restA -= length) == 0 && --i >= 0) {
+                restA = runLength(i);
+            }
+            if (j >= 0 && (restB -= length) == 0 && --j >= 0) {
+                restB = other.runLength(j);
+            }
+        }
+
+        RunLengthNumberList result = new RunLengthNumberList(base);
+        if (carry > 0) {
+            result.appendRun((byte) carry, 1);
+        }
+        for (int r = sumRuns - 1; r >= 0; r--) {
+            result.appendRun(sumDigits[r], sumLengths[r]);
+        }
+        return result;
+    }
+
+
+    @Override
+    public String toDecimalString() {
+        if (isEmpty()) {
+            return "0";
+        }
+        if ((long) runs * 4 > size()) {
+            return super.toDecimalString(); // майже не стиснений - звичайне переведення
+        }
+        return RadixConverter.digitString(
+                RadixConverter.toDigits(value(), RadixPowerCache.tables(base, ALTERNATIVE_BASE).target));
+    }
+
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "0";
+        }
+
+        StringBuilder sb = new StringBuilder(size());
+        int start = 0;
+        for (int r = 0; r < runs; r++) {
+            char digit = Character.forDigit(runDigits[r], Character.MAX_RADIX);
+            for (; start < runEnds[r]; start++) {
+                sb.append(digit);
+            }
+        }
+        return sb.toString();
+    }
+
+
+    @Override
+    public Iterator<Byte> iterator() {
+        return new RunIterator();
+    }
+
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Byte) {
+            for (int r = 0; r < runs; r++) {
+                if (runDigits[r] == (Byte) o) {
+                    return runStart(r);
+                }
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o instanceof Byte) {
+            for (int r = runs - 1; r >= 0; r--) {
+                if (runDigits[r] == (Byte) o) {
+                    return runEnds[r] - 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    public void sortAscending() {
+        sortRuns(true);
+    }
+
+
+    @Override
+    public void sortDescending() {
+        sortRuns(false);
+    }
+
+    // Після сортування кожна цифра утворює одну серію
+    private void sortRuns(boolean ascending) {
+        if (runs <= 1) {
+            return;
+        }
+
+        int[] counts = new int[base];
+        for (int r = 0; r < runs; r++) {
+            counts[runDigits[r]] += runLength(r);
+        }
+        runs = 0;
+        int end = 0;
+        for (int k = 0; k < base; k++) {
+            int digit = ascending ? k : base - 1 - k;
+            if (counts[digit] > 0) {
+                end += counts[digit];
+                insertRun(runs, (byte) digit, end);
+            }
+        }
+        modified();
+    }
+
+
+    @Override
+    int base() {
+        return base;
+    }
+
+    @Override
+    public int size() {
+        return runs == 0 ? 0 : runEnds[runs - 1];
+    }
+
+    @Override
+    byte[] toDigitArray() {
+        byte[] digits = new byte[size()];
+        int start = 0;
+        for (int r = 0; r < runs; r++) {
+            Arrays.fill(digits, start, runEnds[r], runDigits[r]);
+            start = runEnds[r];
+        }
+        return digits;
+    }
+
+    @Override
+    byte digitAt(int index) {
+        return runDigits[runOf(index)];
+    }
+
+    @Override
+    void setDigitAt(int index, byte digit) {
+        if (runDigits[runOf(index)] != digit) {
+            removeDigitAt(index);
+            insertDigitAt(index, digit);
+        }
+    }
+
+    @Override
+    void insertDigitAt(int index, byte digit) {
+        if (index == size()) {
+            if (runs > 0 && runDigits[runs - 1] == digit) {
+                runEnds[runs - 1]++;
+            } else {
+                insertRun(runs, digit, index + 1);
+            }
+            return;
+        }
+
+        int r = runOf(index);
+        int start = runStart(r);
+        if (runDigits[r] == digit) {
+            shiftEnds(r, 1);
+        } else if (index == start && r > 0 && runDigits[r - 1] == digit) {
+            shiftEnds(r - 1, 1);
+        } else if (index == start) {
+            insertRun(r, digit, start);
+            shiftEnds(r, 1);
+        } else {
+            // розбиваємо серію r на частину до index, нову цифру і решту
+            insertRun(r, runDigits[r], index);
+            insertRun(r + 1, digit, index);
+            shiftEnds(r + 1, 1);
+        }
+    }
+
+    @Override
+    byte removeDigitAt(int index) {
+        int r = runOf(index);
+        byte removed = runDigits[r];
+        shiftEnds(r, -1);
+        if (runEnds[r] == runStart(r)) {
+            removeRun(r);
+            // сусідні серії з однаковою цифрою зливаються
+            if (r > 0 && r < runs && runDigits[r - 1] == runDigits[r]) {
+                runEnds[r - 1] = runEnds[r];
+                removeRun(r);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        runs = 0;
+        modified();
+    }
+
+
+    // Значення числа: серії об'єднуються навпіл, серія довжини n дає digit * (base^n - 1) / (base - 1)
+    private BigInteger value() {
+        return value(0, runs);
+    }
+
+    private BigInteger value(int from, int to) {
+        if (to - from == 1) {
+            int length = runLength(from);
+            BigInteger power = BigInteger.valueOf(base).pow(length);
+            return power.subtract(BigInteger.ONE)
+                    .divide(BigInteger.valueOf(base - 1))
+                    .multiply(BigInteger.valueOf(runDigits[from]));
+        }
+        int middle = (from + to) >>> 1;
+        int lowLength = runEnds[to - 1] - runStart(middle);
+        return value(from, middle).multiply(BigInteger.valueOf(base).pow(lowLength)).add(value(middle, to));
+    }
+
+    // Серія, що містить цифру з індексом index
+    private int runOf(int index) {
+        int low = 0;
+        int high = runs - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runEnds[middle] <= index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int runStart(int r) {
+        return r == 0 ? 0 : runEnds[r - 1];
+    }
+
+    private int runLength(int r) {
+        return runEnds[r] - runStart(r);
+    }
+
+    private void shiftEnds(int from, int delta) {
+        for (int r = from; r < runs; r++) {
+            runEnds[r] += delta;
+        }
+    }
+
+    private void insertRun(int r, byte digit, int end) {
+        if (runs == runDigits.length) {
+            runDigits = Arrays.copyOf(runDigits, runs * 2);
+            runEnds = Arrays.copyOf(runEnds, runs * 2);
+        }
+        System.arraycopy(runDigits, r, runDigits, r + 1, runs - r);
+        System.arraycopy(runEnds, r, runEnds, r + 1, runs - r);
+        runDigits[r] = digit;
+        runEnds[r] = end;
+        runs++;
+    }
+
+    private void removeRun(int r) {
+        System.arraycopy(runDigits, r + 1, runDigits, r, runs - r - 1);
+        System.arraycopy(runEnds, r + 1, runEnds, r, runs - r - 1);
+        runs--;
+    }
+
+
+    // Ітератор, що йде серіями без двійкового пошуку на кожному кроці
+    private class RunIterator implements Iterator<Byte> {
+        private int index;
+        private int run;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < size();
+        }
+
+        @Override
+        public Byte next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= size()) {
+                throw new NoSuchElementException();
+            }
+            while (runEnds[run] <= index) {
+                run++;
+            }
+            lastReturned = index++;
+            return runDigits[run];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeDigitAt(lastReturned);
+            modified();
+            index = lastReturned;
+            run = index < size() ? runOf(index) : 0;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.function.Consumer;
+
+/**
+ * Публікація числа для одного записувача і багатьох читачів. Записувач
+ * змінює власну копію <tt>NumberListImpl</tt> у {@link #update}, після
+ * чого публікується новий незмінний знімок з номером версії. Читачі
+ * беруть {@link #snapshot()} одним volatile-читанням: без блокувань, без
+ * повторів і без очікування на записувача, тож їхня пропускна здатність не
+ * залежить від частоти змін. Знімок можна обходити, індексувати й
+ * переводити у десяткову систему скільки завгодно довго - наступні зміни
+ * його не зачіпають.<p>
+ *
+ * Ціна публікації - копія цифр (O(n)) на кожен виклик {@link #update},
+ * тож дрібні зміни варто групувати в одному виклику.
+ *
+ * <pre>
+ * VersionedNumberList shared = new VersionedNumberList(sum);
+ * // записувач
+ * shared.update(list -&gt; list.addInPlace(term));
+ * // читачі
+ * String value = shared.snapshot().toDecimalString();
+ * </pre>
+ *
+ * @author Каленіченко Варвара Андріївна
+ * Група: ІС-33
+ */
+public final class VersionedNumberList {
+
+    private final NumberListImpl working; // змінюється лише під монітором this
+    private volatile Snapshot published;
+
+    /**
+     * Створює публікацію з копії числа; сам аргумент далі не використовується.
+     *
+     * @param initial - початкове значення
+     * @throws IllegalArgumentException якщо аргумент null
+     */
+    public VersionedNumberList(NumberListImpl initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        byte[] digits = initial.toDigitArray();
+        this.working = NumberListImpl.fromDigits(initial.base(), digits, 0, digits.length);
+        this.published = new Snapshot(initial.base(), digits, 0);
+    }
+
+
+    /**
+     * Змінює число і публікує новий знімок. Виклики з різних потоків
+     * виконуються по черзі; читачів вони не блокують. Якщо зміна кинула
+     * виняток, публікується стан, до якого вона встигла дійти.
+     *
+     * @param mutation - зміна робочої копії; посилання на неї не можна зберігати
+     * @return опублікований знімок
+     * @throws IllegalArgumentException якщо аргумент null
+     */
+    public synchronized Snapshot update(Consumer<? super NumberListImpl> mutation) {
+        if (mutation == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        try {
+            mutation.accept(working);
+        } finally {
+            published = new Snapshot(working.base(), working.toDigitArray(), published.version + 1);
+        }
+        return published;
+    }
+
+
+    /**
+     * Повертає останній опублікований знімок. Не блокується.
+     *
+     * @return незмінний знімок
+     */
+    public Snapshot snapshot() {
+        return published;
+    }
+
+
+    /**
+     * Повертає номер останньої опублікованої версії.
+     *
+     * @return кількість виконаних {@link #update}
+     */
+    public long version() {
+        return published.version;
+    }
+
+
+    @Override
+    public String toString() {
+        return published.toString();
+    }
+
+
+    /**
+     * Незмінний знімок числа. Усі операції читання {@link ua.kpi.comsys.test2.NumberList}
+     * працюють за індексом у масиві цифр, усі зміни кидають
+     * <tt>UnsupportedOperationException</tt>. Десятковий запис обчислюється
+     * один раз на знімок і ділиться між усіма читачами.
+     */
+    public static final class Snapshot extends AbstractNumberList {
+        private final int base;
+        private final byte[] digits;
+        private final long version;
+        private String decimal; // гонка нешкідлива: рядок незмінний, як String.hash
+
+        private Snapshot(int base, byte[] digits, long version) {
+            this.base = base;
+            this.digits = digits;
+            this.version = version;
+        }
+
+        /**
+         * Повертає номер версії знімка.
+         *
+         * @return 0 для початкового значення, далі +1 на кожен update
+         */
+        public long version() {
+            return version;
+        }
+
+        /**
+         * Копія знімка у звичайному змінному списку.
+         *
+         * @return новий список
+         */
+        public NumberListImpl toNumberListImpl() {
+            return NumberListImpl.fromDigits(base, digits.clone(), 0, digits.length);
+        }
+
+        @Override
+        public String toDecimalString() {
+            String result = decimal;
+            if (result == null) {
+                result = super.toDecimalString();
+                decimal = result;
+            }
+            return result;
+        }
+
+        @Override
+        int base() {
+            return base;
+        }
+
+        @Override
+        public int size() {
+            return digits.length;
+        }
+
+        @Override
+        byte[] toDigitArray() {
+            return digits.clone();
+        }
+
+        @Override
+        byte digitAt(int index) {
+            return digits[index];
+        }
+
+        @Override
+        void setDigitAt(int index, byte digit) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+
+        @Override
+        void insertDigitAt(int index, byte digit) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+
+        @Override
+        byte removeDigitAt(int index) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.bytesPerOperation;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.nanosPerOperation;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.randomDecimal;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.timeRatio;
+
+/**
+ * Довга арифметика відносно <tt>BigInteger</tt> і злиті суми
+ * {@link NumberExpression} відносно ланцюжка <tt>additionalOperation</tt>.
+ */
+public class ArithmeticPerfTest {
+
+    @Test
+    public void testModPowAgainstBigInteger() throws Exception {
+        Random random = new Random(48);
+        BigInteger a = new BigInteger(1024, random);
+        BigInteger e = new BigInteger(1024, random);
+        BigInteger m = new BigInteger(1024, random).setBit(1023).setBit(0);
+        NumberListImpl base = new NumberListImpl(a.toString());
+        NumberListImpl exponent = new NumberListImpl(e.toString());
+        NumberListImpl modulus = new NumberListImpl(m.toString());
+        assertEquals(a.modPow(e, m).toString(), base.modPow(exponent, modulus).toDecimalString());
+
+        double list = nanosPerOperation(() -> base.modPow(exponent, modulus));
+        double reference = nanosPerOperation(() -> a.modPow(e, m));
+        System.out.printf("%-28s %.1fx BigInteger (budget 20x)%n", "modPow 1024 bit", list / reference);
+        assertTrue("modPow is " + list / reference + "x slower than BigInteger", list <= 20 * reference);
+    }
+
+    @Test
+    public void testScalarPathsAgainstGeneralPaths() throws Exception {
+        NumberListImpl list = new NumberListImpl(randomDecimal(100_000, 49));
+        NumberListImpl factor = new NumberListImpl("1000003");
+        BigInteger bigFactor = BigInteger.valueOf(1_000_003);
+        String before = list.toString();
+
+        // множення і ділення на той самий скаляр залишають число незмінним
+        PerfBudget.Operation scalar = () -> {
+            list.multiplySmall(1_000_003);
+            list.divideSmall(1_000_003);
+        };
+        PerfBudget.Operation lists = () -> NumberExpression.of(list).multiply(factor).evaluate()
+                .divideAndRemainder(factor);
+        PerfBudget.Operation bigInteger = () -> {
+            list.set(0, list.get(0)); // без кешованого десяткового рядка
+            BigInteger value = new BigInteger(list.toDecimalString());
+            new NumberListImpl(value.multiply(bigFactor).divide(bigFactor).toString());
+        };
+        scalar.run();
+        assertEquals(before, list.toString());
+
+        double scalarNanos = nanosPerOperation(scalar);
+        double listNanos = nanosPerOperation(lists);
+        double bigIntegerNanos = nanosPerOperation(bigInteger);
+        // старші цифри, відкинуті діленням, множення знову додає - без пулу це нові вузли
+        NumberListImpl.setNodePoolCapacity(64);
+        long scalarBytes;
+        try {
+            scalarBytes = bytesPerOperation(scalar);
+        } finally {
+            NumberListImpl.setNodePoolCapacity(0);
+        }
+        System.out.printf("%-28s %.1fx faster than two lists (budget 1x), %.0fx than BigInteger (budget 10x), "
+                + "%d B allocated (budget 0)%n", "multiplySmall/divideSmall",
+                listNanos / scalarNanos, bigIntegerNanos / scalarNanos, scalarBytes);
+        assertTrue("Scalar path is slower than two lists", scalarNanos <= listNanos);
+        assertTrue("Scalar path is only " + bigIntegerNanos / scalarNanos + "x faster than BigInteger",
+                10 * scalarNanos <= bigIntegerNanos);
+        assertEquals("Scalar path allocates", 0, scalarBytes);
+    }
+
+    @Test
+    public void testFusedSumAgainstChain() throws Exception {
+        NumberListImpl[] terms = new NumberListImpl[10];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = new NumberListImpl(randomDecimal(100_000, i));
+        }
+        NumberExpression sum = NumberExpression.of(terms[0]);
+        for (int i = 1; i < terms.length; i++) {
+            sum = sum.add(terms[i]);
+        }
+        NumberExpression fused = sum;
+        PerfBudget.Operation chain = () -> {
+            NumberListImpl accumulator = terms[0];
+            for (int i = 1; i < terms.length; i++) {
+                accumulator = accumulator.additionalOperation(terms[i]);
+            }
+        };
+
+        double time = timeRatio(fused::evaluate, chain);
+        long fusedBytes = bytesPerOperation(fused::evaluate);
+        long chainBytes = bytesPerOperation(chain);
+        // злита сума обходить операнди один раз і поруч, а ланцюжок будує дев'ять проміжних списків
+        System.out.printf("%-28s %.2fx time (budget 0.4x), %.2fx memory (budget 0.25x) of chain%n",
+                "fused sum of 10", time, (double) fusedBytes / chainBytes);
+        assertTrue("Fused sum is " + time + "x the chain time", time <= 0.4);
+        assertTrue("Fused sum allocates " + (double) fusedBytes / chainBytes + "x the chain memory",
+                fusedBytes <= 0.25 * chainBytes);
+    }
+}
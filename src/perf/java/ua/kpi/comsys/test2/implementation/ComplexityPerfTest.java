@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static ua.kpi.comsys.test2.implementation.PerfBudget.assertAllocation;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.assertGrowth;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.randomDecimal;
+import static ua.kpi.comsys.test2.implementation.PerfBudget.randomNumberFile;
+
+/**
+ * Порядок зростання і виділення пам'яті основних операцій списку на
+ * числах до сотень тисяч цифр. Бюджети порядку залишають запас над
+ * виміряним (кеш процесора на сотнях тисяч вузлів теж додає нахилу), але
+ * нижчі за квадратичний, тож O(n^2) замість O(n) чи O(n^1.6) провалить
+ * збірку.
+ */
+public class ComplexityPerfTest {
+    static final int[] SIZES = {16_384, 32_768, 65_536, 131_072};
+    static final int ALLOCATION_SIZE = 65_536;
+
+    File file;
+
+    @After
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        assertGrowth("get(size - 1)", 1.5, SIZES, size -> {
+            NumberListImpl list = new NumberListImpl(randomDecimal(size, size));
+            int last = list.size() - 1;
+            return () -> list.get(last);
+        });
+
+        NumberListImpl list = new NumberListImpl(randomDecimal(ALLOCATION_SIZE, 1));
+        assertAllocation("get(i), every 1024th i", 0.01, list.size(), () -> {
+            for (int i = 0; i < list.size(); i += 1024) {
+                list.get(i);
+            }
+        });
+    }
+
+    @Test
+    public void testAdditionalOperation() throws Exception {
+        assertGrowth("additionalOperation", 1.5, SIZES, size -> {
+            NumberListImpl a = new NumberListImpl(randomDecimal(size, size));
+            NumberListImpl b = new NumberListImpl(randomDecimal(size, size + 1));
+            return () -> a.additionalOperation(b);
+        });
+
+        NumberListImpl a = new NumberListImpl(randomDecimal(ALLOCATION_SIZE, 1));
+        NumberListImpl b = new NumberListImpl(randomDecimal(ALLOCATION_SIZE, 2));
+        assertAllocation("additionalOperation", 64, a.size(), () -> a.additionalOperation(b));
+    }
+
+    @Test
+    public void testChangeScale() throws Exception {
+        assertGrowth("changeScale", 1.7, SIZES, size -> {
+            NumberListImpl list = new NumberListImpl(randomDecimal(size, size));
+            return () -> {
+                list.set(0, list.get(0)); // скидає кешовані подання
+                list.changeScale();
+            };
+        });
+
+        NumberListImpl list = new NumberListImpl(randomDecimal(ALLOCATION_SIZE, 1));
+        assertAllocation("changeScale", 600, list.size(), () -> {
+            list.set(0, list.get(0));
+            list.changeScale();
+        });
+    }
+
+    @Test
+    public void testSort() throws Exception {
+        assertGrowth("sortAscending/sortDescending", 1.5, SIZES, size -> {
+            NumberListImpl list = new NumberListImpl(randomDecimal(size, size));
+            return () -> {
+                list.sortAscending();
+                list.sortDescending();
+            };
+        });
+
+        NumberListImpl list = new NumberListImpl(randomDecimal(ALLOCATION_SIZE, 1));
+        assertAllocation("sortAscending", 0.01, list.size(), list::sortAscending);
+    }
+
+    @Test
+    public void testFileIo() throws Exception {
+        assertGrowth("saveList", 1.7, SIZES, size -> {
+            NumberListImpl list = new NumberListImpl(randomDecimal(size, size));
+            File target = Files.createTempFile("perf", ".txt").toFile();
+            target.deleteOnExit();
+            return () -> {
+                list.set(0, list.get(0)); // без кешованого десяткового рядка
+                list.saveList(target);
+            };
+        });
+        assertGrowth("new NumberListImpl(File)", 1.7, SIZES, size -> {
+            File source = randomNumberFile(size, size);
+            return () -> new NumberListImpl(source);
+        });
+
+        file = randomNumberFile(ALLOCATION_SIZE, 1);
+        NumberListImpl list = new NumberListImpl(file);
+        assertAllocation("new NumberListImpl(File)", 448, ALLOCATION_SIZE, () -> new NumberListImpl(file));
+        assertAllocation("saveList", 560, list.size(), () -> {
+            list.set(0, list.get(0));
+            list.saveList(file);
+        });
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Вимірювання для тестів продуктивності: час і виділена пам'ять на
+ * операцію та емпіричний порядок зростання за кількома розмірами входу.
+ * Порядок - нахил прямої найменших квадратів у координатах
+ * log(розмір), log(час): лінійний алгоритм дає близько 1, квадратичний -
+ * близько 2. Час береться найкращий з кількох раундів, щоб шум планувальника
+ * і збирача сміття не завищував оцінку.
+ */
+final class PerfBudget {
+
+    private static final int ROUNDS = 5;
+    private static final long MIN_ROUND_NANOS = 20_000_000L;
+    private static final int COMPARISONS = 4;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private PerfBudget() {
+    }
+
+    /**
+     * Операція над підготовленим для розміру станом.
+     */
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Готує операцію для входу заданого розміру.
+     */
+    interface Setup {
+        Operation prepare(int size) throws Exception;
+    }
+
+    /**
+     * Найкращий час однієї операції в наносекундах. Операція повторюється,
+     * доки раунд не триватиме щонайменше 20 мс.
+     */
+    static double nanosPerOperation(Operation operation) throws Exception {
+        double best = Double.MAX_VALUE;
+        for (int round = -1; round < ROUNDS; round++) { // раунд -1 - розігрів JIT
+            int count = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                operation.run();
+                count++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_ROUND_NANOS);
+            if (round >= 0) {
+                best = Math.min(best, (double) elapsed / count);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Відношення часу operation до часу reference. Вимірювання обох
+     * операцій чергуються кілька разів, кожне - після збирання сміття, щоб
+     * паузи збирача через сміття однієї операції не припадали на іншу;
+     * для кожної береться найкращий час з усіх повторень.
+     */
+    static double timeRatio(Operation operation, Operation reference) throws Exception {
+        double operationNanos = Double.MAX_VALUE;
+        double referenceNanos = Double.MAX_VALUE;
+        for (int i = 0; i < COMPARISONS; i++) {
+            System.gc();
+            operationNanos = Math.min(operationNanos, nanosPerOperation(operation));
+            System.gc();
+            referenceNanos = Math.min(referenceNanos, nanosPerOperation(reference));
+        }
+        return operationNanos / referenceNanos;
+    }
+
+    /**
+     * Найменша кількість байтів, виділених поточним потоком за одну операцію.
+     */
+    static long bytesPerOperation(Operation operation) throws Exception {
+        operation.run(); // розігрів: ліниві таблиці і кеші не рахуються
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            operation.run();
+            best = Math.min(best, THREADS.getCurrentThreadAllocatedBytes() - before);
+        }
+        return best;
+    }
+
+    /**
+     * Нахил log(час) від log(розміру) для операцій, підготовлених setup.
+     */
+    static double growth(int[] sizes, Setup setup) throws Exception {
+        nanosPerOperation(setup.prepare(sizes[0])); // щоб найменший розмір не міряв ще не скомпільований код
+        double[] x = new double[sizes.length];
+        double[] y = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            x[i] = Math.log(sizes[i]);
+            y[i] = Math.log(nanosPerOperation(setup.prepare(sizes[i])));
+        }
+        return slope(x, y);
+    }
+
+    // Нахил прямої найменших квадратів
+    static double slope(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < x.length; i++) {
+            meanX += x[i] / x.length;
+            meanY += y[i] / y.length;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+        return covariance / variance;
+    }
+
+    /**
+     * Перевіряє, що порядок зростання не перевищує бюджет.
+     */
+    static void assertGrowth(String operation, double budget, int[] sizes, Setup setup)
+            throws Exception {
+        double exponent = growth(sizes, setup);
+        System.out.printf("%-28s n^%.2f (budget n^%.2f)%n", operation, exponent, budget);
+        assertTrue(operation + " grows as n^" + String.format("%.2f", exponent) + ", budget n^" + budget,
+                exponent <= budget);
+    }
+
+    /**
+     * Перевіряє, що операція виділяє не більше budget байтів на цифру.
+     */
+    static void assertAllocation(String operation, double budget, int digits, Operation run) throws Exception {
+        double perDigit = (double) bytesPerOperation(run) / digits;
+        System.out.printf("%-28s %.2f B/digit (budget %.2f)%n", operation, perDigit, budget);
+        assertTrue(operation + " allocates " + String.format("%.1f", perDigit) + " B/digit, budget " + budget,
+                perDigit <= budget);
+    }
+
+    /**
+     * Випадкове десяткове число із заданою кількістю цифр, без провідного нуля.
+     */
+    static String randomDecimal(int digits, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(digits);
+        sb.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Файл з випадковим десятковим числом; видаляється при завершенні JVM.
+     */
+    static File randomNumberFile(int digits, long seed) throws IOException {
+        File file = Files.createTempFile("perf", ".txt").toFile();
+        file.deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII)) {
+            writer.write(randomDecimal(digits, seed));
+        }
+        return file;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkLoaderTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    Path directory;
+    BulkLoader loader = new BulkLoader(2);
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bulk");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        loader.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testLoadDirectoryReportsErrors() throws IOException {
+        Random random = new Random(38);
+        BigInteger[] values = new BigInteger[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new BigInteger(1 + random.nextInt(2000), random);
+            String text = i % 50 == 7 ? "12x4" : values[i].toString();
+            Files.writeString(directory.resolve(String.format("n%04d.txt", i)), text + "\n");
+        }
+
+        List<BulkLoader.Result> results = loader.loadDirectory(directory).collect(Collectors.toList());
+        assertEquals(values.length, results.size());
+        for (int i = 0; i < values.length; i++) {
+            BulkLoader.Result result = results.get(i);
+            assertEquals(String.format("n%04d.txt", i), result.file().getFileName().toString());
+            if (i % 50 == 7) {
+                assertFalse(result.isSuccess());
+                assertNull(result.list());
+                assertTrue("Error names the file", result.error() instanceof NumberFormatException
+                        && result.error().getMessage().contains(result.file().toString()));
+            } else {
+                assertTrue(result.isSuccess());
+                assertEquals(values[i].toString(), result.list().toDecimalString());
+            }
+        }
+    }
+
+    @Test
+    public void testJournaledFileIsReplayed() throws IOException {
+        Path file = directory.resolve("number.txt");
+        NumberListImpl list = new NumberListImpl("5");
+        list.enableJournal(file.toFile());
+        list.incrementBy(1);
+        list.checkpoint();
+        Files.writeString(directory.resolve("number.txt.1234.tmp"), "garbage"); // залишок згортання
+
+        List<BulkLoader.Result> results = loader.loadDirectory(directory).collect(Collectors.toList());
+        assertEquals("Sidecars are not number files", 1, results.size());
+        assertEquals(file, results.get(0).file());
+        assertEquals("6", results.get(0).list().toDecimalString());
+    }
+
+    @Test
+    public void testFutures() throws IOException {
+        Path file = directory.resolve("number.txt");
+        Files.writeString(file, "  " + DECIMAL + "  \nignored");
+        assertEquals(OCTAL, loader.load(file).join().toString());
+
+        try {
+            loader.load(directory.resolve("missing.txt")).join();
+            fail("Missing file must be reported");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause().getCause() instanceof NoSuchFileException);
+        }
+
+        Path empty = directory.resolve("empty.txt");
+        Files.writeString(empty, "");
+        BulkLoader.Result result = loader.stream(List.of(empty)).findFirst().get();
+        assertTrue("Empty file is an error, not an empty list", result.error() instanceof NumberFormatException);
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(OCTAL, NumberListImpl.parse(DECIMAL).toString());
+        for (String invalid : new String[] {"", "-4", "12a", "1 2"}) {
+            try {
+                NumberListImpl.parse(invalid);
+                fail("Invalid number accepted: " + invalid);
+            } catch (NumberFormatException expected) {
+                // очікувано
+            }
+            assertTrue("Constructor still yields an empty list", new NumberListImpl(invalid).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CarrySaveAccumulatorTest {
+    CarrySaveAccumulator sum;
+
+    @After
+    public void tearDown() {
+        if (sum != null) {
+            sum.clear();
+            sum = null;
+        }
+    }
+
+    @Test
+    public void testManyAdditionsMatchBigInteger() {
+        Random random = new Random(31);
+        sum = new CarrySaveAccumulator();
+        BigInteger expected = BigInteger.ZERO;
+
+        for (int i = 0; i < 5000; i++) {
+            BigInteger value = new BigInteger(random.nextInt(200), random);
+            sum.accumulate(new NumberListImpl(value.toString()));
+            sum.accumulate(i);
+            expected = expected.add(value).add(BigInteger.valueOf(i));
+        }
+
+        assertEquals(expected.toString(), sum.toDecimalString());
+        assertEquals(expected.toString(8), sum.toString());
+    }
+
+    @Test
+    public void testReadsSeeNormalizedDigits() {
+        sum = new CarrySaveAccumulator(new NumberListImpl("7"));
+        sum.accumulate(new NumberListImpl("1"));
+
+        assertEquals(2, sum.size());
+        assertEquals(Byte.valueOf((byte) 1), sum.get(0));
+        assertEquals(Byte.valueOf((byte) 0), sum.get(1));
+        assertEquals(new NumberListImpl("8"), sum);
+
+        sum.accumulate(sum);
+        assertEquals("16", sum.toDecimalString());
+    }
+
+    @Test
+    public void testListOperations() {
+        sum = new CarrySaveAccumulator();
+        sum.accumulate(new NumberListImpl("83")); // 123 у вісімковій
+
+        sum.add((byte) 4);
+        sum.add(0, (byte) 5);
+        assertEquals("51234", sum.toString());
+
+        sum.remove(2);
+        sum.shiftLeft();
+        assertEquals("1345", sum.toString());
+
+        sum.sortDescending();
+        assertEquals("5431", sum.toString());
+        assertTrue(sum.swap(0, 3));
+        assertEquals("1435", sum.toString());
+
+        sum.accumulate(new NumberListImpl("1"));
+        assertEquals("1436", sum.toString());
+        assertEquals(sum.toNumberList(), sum);
+    }
+
+    @Test
+    public void testSaveList() throws IOException {
+        File file = File.createTempFile("accumulator", ".txt");
+        try {
+            sum = new CarrySaveAccumulator();
+            sum.accumulate(new NumberListImpl("999999999999"));
+            sum.accumulate(1);
+            sum.saveList(file);
+
+            assertEquals("1000000000000", new String(Files.readAllBytes(file.toPath())));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DecimalParserTest {
+
+    @Test
+    public void testMatchesBigInteger() {
+        Random random = new Random(40);
+        for (int length : new int[] {1, 17, 18, 19, 35, 36, 37, 100, 1000, 20_000}) {
+            for (int round = 0; round < 10; round++) {
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    text.append((char) ('0' + random.nextInt(10)));
+                }
+                String value = text.toString();
+                assertEquals(value, new BigInteger(value).toString(8), new NumberListImpl(value).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testLeadingZerosAndSigns() {
+        assertEquals("12", new NumberListImpl("00010").toString());
+        assertEquals("12", new NumberListImpl("+10").toString());
+        assertEquals("0", new NumberListImpl("0000").toString());
+        assertEquals("0", new NumberListImpl("-0").toString());
+        assertEquals(1, new NumberListImpl("000").size());
+        assertTrue(new NumberListImpl("").isEmpty());
+    }
+
+    @Test
+    public void testErrorsNamePositionAndCharacter() {
+        assertError("12a4", "'a' at position 2");
+        assertError("1 2", "' ' at position 1");
+        assertError("+", "No digits");
+        assertError("-", "No digits");
+        assertError("--1", "'-' at position 1");
+        assertError("-4", "Negative");
+        assertError("0x10", "'x' at position 1");
+        assertError("١٢", "position 0"); // цифри інших письмових систем не приймаються
+    }
+
+    private static void assertError(String text, String fragment) {
+        try {
+            NumberListImpl.parse(text);
+            fail("Accepted " + text);
+        } catch (NumberFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(fragment));
+        }
+        assertTrue("Constructor yields an empty list for " + text, new NumberListImpl(text).isEmpty());
+    }
+}
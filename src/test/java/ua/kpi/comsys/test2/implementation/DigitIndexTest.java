@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DigitIndexTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    NumberListImpl indexed = new NumberListImpl();
+    NumberListImpl plain = new NumberListImpl();
+
+    @After
+    public void tearDown() {
+        indexed.clear();
+        plain.clear();
+    }
+
+    @Test
+    public void testQueries() {
+        indexed = new NumberListImpl(DECIMAL);
+        indexed.enableDigitIndex();
+        assertEquals(OCTAL, indexed.toString());
+
+        assertTrue(indexed.contains((byte) 7));
+        assertFalse(indexed.contains((byte) 8));
+        assertFalse(indexed.contains((byte) -1));
+        assertEquals(1, indexed.indexOf((byte) 0));
+        assertEquals(19, indexed.lastIndexOf((byte) 1));
+        assertEquals(-1, indexed.indexOf((byte) 9));
+        assertEquals(5, indexed.countOf((byte) 3));
+
+        assertFalse(indexed.remove((Byte) (byte) 8));
+        assertTrue(indexed.remove((Byte) (byte) 0));
+        assertEquals(-1, indexed.indexOf((byte) 0));
+        assertEquals(OCTAL.substring(0, 1) + OCTAL.substring(2), indexed.toString());
+    }
+
+    @Test
+    public void testIndexFollowsEveryMutator() {
+        Random random = new Random(36);
+        indexed.enableDigitIndex();
+        for (int step = 0; step < 4000; step++) {
+            int size = plain.size();
+            byte digit = (byte) random.nextInt(8);
+            int index = size == 0 ? 0 : random.nextInt(size);
+            switch (random.nextInt(12)) {
+                case 0, 1 -> {
+                    plain.add(digit);
+                    indexed.add(digit);
+                }
+                case 2 -> {
+                    int position = random.nextInt(size + 1);
+                    plain.add(position, digit);
+                    indexed.add(position, digit);
+                }
+                case 3 -> {
+                    if (size > 0) {
+                        assertEquals(plain.remove(index), indexed.remove(index));
+                    }
+                }
+                case 4 -> assertEquals(plain.remove((Byte) digit), indexed.remove((Byte) digit));
+                case 5 -> {
+                    if (size > 0) {
+                        plain.set(index, digit);
+                        indexed.set(index, digit);
+                    }
+                }
+                case 6 -> {
+                    int other = size == 0 ? 0 : random.nextInt(size);
+                    plain.swap(index, other);
+                    indexed.swap(index, other);
+                }
+                case 7 -> {
+                    plain.shiftLeft();
+                    indexed.shiftLeft();
+                }
+                case 8 -> {
+                    plain.shiftRight();
+                    indexed.shiftRight();
+                }
+                case 9 -> {
+                    long value = random.nextInt(1 << 20);
+                    plain.incrementBy(value);
+                    indexed.incrementBy(value);
+                }
+                case 10 -> {
+                    Iterator<Byte> a = plain.iterator();
+                    Iterator<Byte> b = indexed.iterator();
+                    while (a.hasNext()) {
+                        if (a.next() == digit) {
+                            a.remove();
+                        }
+                        if (b.next() == digit) {
+                            b.remove();
+                        }
+                    }
+                }
+                default -> {
+                    if (random.nextInt(20) == 0) {
+                        plain.clear();
+                        indexed.clear();
+                    } else {
+                        NumberListImpl addend = new NumberListImpl(Integer.toString(random.nextInt(1 << 30)));
+                        plain.addInPlace(addend);
+                        indexed.addInPlace(addend);
+                    }
+                }
+            }
+
+            assertEquals("Step " + step, plain.toString(), indexed.toString());
+            byte probe = (byte) random.nextInt(8);
+            assertEquals("Step " + step, plain.contains(probe), indexed.contains(probe));
+            assertEquals("Step " + step, plain.indexOf(probe), indexed.indexOf(probe));
+            assertEquals("Step " + step, plain.lastIndexOf(probe), indexed.lastIndexOf(probe));
+            assertEquals("Step " + step, plain.countOf(probe), indexed.countOf(probe));
+        }
+
+        plain.sortDescending();
+        indexed.sortDescending();
+        for (byte probe = 0; probe < 8; probe++) {
+            assertEquals(plain.indexOf(probe), indexed.indexOf(probe));
+            assertEquals(plain.lastIndexOf(probe), indexed.lastIndexOf(probe));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DigitStreamTest {
+    NumberListImpl list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testParallelHistogramMatchesSequential() {
+        list = new NumberListImpl("1234567890".repeat(3000));
+
+        int[] sequential = new int[8];
+        for (Byte digit : list) {
+            sequential[digit]++;
+        }
+
+        int[] parallel = list.digits().parallel()
+                .collect(() -> new int[8], (counts, digit) -> counts[digit]++, (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                });
+
+        assertArrayEquals(sequential, parallel);
+        assertEquals(list.toString(), list.parallelStream().map(String::valueOf).collect(Collectors.joining()));
+    }
+
+    @Test
+    public void testSpliteratorSplitsEvenly() {
+        list = new NumberListImpl("9".repeat(10_000));
+
+        Spliterator.OfInt suffix = list.digits().spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        long total = suffix.estimateSize();
+        assertEquals(list.size(), total);
+
+        Spliterator.OfInt prefix = suffix.trySplit();
+        assertNotNull("Large list must split", prefix);
+        assertEquals(total / 2, prefix.estimateSize());
+        assertEquals(total - total / 2, suffix.estimateSize());
+
+        StringBuilder sb = new StringBuilder();
+        prefix.forEachRemaining((int digit) -> sb.append(digit));
+        suffix.forEachRemaining((int digit) -> sb.append(digit));
+        assertEquals(list.toString(), sb.toString());
+    }
+
+    @Test
+    public void testSmallListDoesNotSplit() {
+        list = new NumberListImpl("12345");
+        Spliterator.OfInt spliterator = list.digits().spliterator();
+        assertEquals(null, spliterator.trySplit());
+        assertEquals(list.toString().chars().map(c -> c - '0').sum(), list.digits().sum());
+    }
+
+    @Test
+    public void testModificationDuringTraversal() {
+        list = new NumberListImpl("12345");
+        try {
+            list.digits().forEach(digit -> list.add((byte) 1));
+            fail("Modification during traversal must be detected");
+        } catch (ConcurrentModificationException e) {
+            // очікувано
+        }
+    }
+
+    @Test
+    public void testIndexedSpliterator() {
+        CarrySaveAccumulator sum = new CarrySaveAccumulator(new NumberListImpl("7".repeat(5000)));
+        sum.accumulate(1);
+
+        assertEquals(sum.toString(), sum.digits().parallel()
+                .mapToObj(Integer::toString).collect(Collectors.joining()));
+        assertEquals(sum.size(), sum.parallelStream().count());
+    }
+}
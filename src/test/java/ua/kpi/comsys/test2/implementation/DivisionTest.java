@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DivisionTest {
+    private static final int KARATSUBA = LimbNumber.karatsubaThreshold;
+    private static final int BURNIKEL_ZIEGLER = LimbNumber.burnikelZieglerThreshold;
+    private static final int NEWTON = LimbNumber.newtonThreshold;
+
+    @After
+    public void tearDown() {
+        LimbNumber.karatsubaThreshold = KARATSUBA;
+        LimbNumber.burnikelZieglerThreshold = BURNIKEL_ZIEGLER;
+        LimbNumber.newtonThreshold = NEWTON;
+    }
+
+    @Test
+    public void testSchoolDivision() {
+        checkRandom(new Random(41), 60, 8);
+    }
+
+    @Test
+    public void testBurnikelZiegler() {
+        LimbNumber.karatsubaThreshold = 4;
+        LimbNumber.burnikelZieglerThreshold = 3;
+        checkRandom(new Random(42), 400, 8);
+    }
+
+    @Test
+    public void testNewtonReciprocal() {
+        LimbNumber.karatsubaThreshold = 4;
+        LimbNumber.burnikelZieglerThreshold = 3;
+        LimbNumber.newtonThreshold = 6;
+        checkRandom(new Random(43), 400, 8);
+    }
+
+    @Test
+    public void testOtherBases() {
+        LimbNumber.burnikelZieglerThreshold = 3;
+        LimbNumber.newtonThreshold = 12;
+        Random random = new Random(44);
+        for (int base : new int[] {2, 3, 10, 16}) {
+            for (int round = 0; round < 40; round++) {
+                check(random, base, 1 + random.nextInt(500), 1 + random.nextInt(300));
+            }
+        }
+    }
+
+    @Test
+    public void testLargeOperands() {
+        Random random = new Random(45);
+        check(random, 8, 60_000, 20_000);
+        check(random, 8, 100_000, 99_000);
+        check(random, 10, 50_000, 7_000);
+    }
+
+    @Test
+    public void testWorstCaseDigits() {
+        LimbNumber.burnikelZieglerThreshold = 3;
+        LimbNumber.newtonThreshold = 8;
+        for (int n = 1; n < 300; n += 7) {
+            String maximal = "7".repeat(2 * n + 5);
+            check(maximal, "7".repeat(n), 8);
+            check(maximal, "1" + "0".repeat(n), 8);
+            check(maximal, "4" + "0".repeat(n), 8);
+            check("1" + "0".repeat(2 * n + 5), "3" + "7".repeat(n), 8);
+        }
+    }
+
+    @Test
+    public void testSmallCases() {
+        NumberListImpl[] qr = new NumberListImpl("100").divideAndRemainder(new NumberListImpl("7"));
+        assertEquals("14", qr[0].toDecimalString());
+        assertEquals("2", qr[1].toDecimalString());
+
+        qr = new NumberListImpl("5").divideAndRemainder(new NumberListImpl("9"));
+        assertEquals("0", qr[0].toString());
+        assertEquals("5", qr[1].toString());
+
+        qr = new NumberListImpl().divideAndRemainder(new NumberListImpl("3"));
+        assertEquals("0", qr[0].toString());
+        assertEquals("0", qr[1].toString());
+    }
+
+    @Test
+    public void testDivisionByZero() {
+        for (String zero : new String[] {"0", "000", ""}) {
+            try {
+                new NumberListImpl("12").divideAndRemainder(new NumberListImpl(zero));
+                fail("Division by zero accepted: \"" + zero + "\"");
+            } catch (ArithmeticException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testOperandsAreNotModified() {
+        NumberListImpl dividend = new NumberListImpl("123456789");
+        NumberListImpl divisor = new NumberListImpl("1000");
+        dividend.divideAndRemainder(divisor);
+        assertEquals("123456789", dividend.toDecimalString());
+        assertEquals("1000", divisor.toDecimalString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignDigitIsRejected() {
+        new NumberListImpl("12").divideAndRemainder(new NumberListImpl("99").changeScale());
+    }
+
+    private static void checkRandom(Random random, int maxDigits, int base) {
+        for (int round = 0; round < 300; round++) {
+            check(random, base, 1 + random.nextInt(maxDigits), 1 + random.nextInt(maxDigits));
+        }
+    }
+
+    private static void check(Random random, int base, int dividendDigits, int divisorDigits) {
+        check(randomDigits(random, base, dividendDigits), randomDigits(random, base, divisorDigits), base);
+    }
+
+    private static void check(String dividend, String divisor, int base) {
+        BigInteger a = new BigInteger(dividend, base);
+        BigInteger b = new BigInteger(divisor, base);
+        if (b.signum() == 0) {
+            return;
+        }
+        BigInteger[] expected = a.divideAndRemainder(b);
+
+        LimbNumber[] actual = limbs(dividend, base).divideAndRemainder(limbs(divisor, base));
+        String message = dividend.length() + " / " + divisor.length() + " digits in base " + base;
+        assertEquals(message, expected[0].toString(base), text(actual[0].toDigits()));
+        assertEquals(message, expected[1].toString(base), text(actual[1].toDigits()));
+    }
+
+    private static String randomDigits(Random random, int base, int length) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            digits.append(Character.forDigit(random.nextInt(base), base));
+        }
+        return digits.toString();
+    }
+
+    private static LimbNumber limbs(String digits, int base) {
+        byte[] values = new byte[digits.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (byte) Character.digit(digits.charAt(i), base);
+        }
+        return LimbNumber.fromDigits(base, values, 0, values.length);
+    }
+
+    private static String text(byte[] digits) {
+        StringBuilder text = new StringBuilder();
+        for (byte digit : digits) {
+            text.append(Character.forDigit(digit, 16));
+        }
+        return text.toString();
+    }
+}
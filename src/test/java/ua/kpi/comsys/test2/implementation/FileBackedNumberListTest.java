@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.NumberList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+
+public class FileBackedNumberListTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("numbers");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testReopenKeepsDigits() throws IOException {
+        Path file = directory.resolve("number.nl");
+        try (FileBackedNumberList list = FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL), file)) {
+            assertEquals(OCTAL, list.toString());
+        }
+        assertEquals("Header plus packed digits", 16 + (OCTAL.length() + 1) / 2, Files.size(file));
+
+        try (FileBackedNumberList list = FileBackedNumberList.open(file)) {
+            assertEquals(OCTAL.length(), list.size());
+            assertEquals(DECIMAL, list.toDecimalString());
+            list.add((byte) 7);
+            list.add(0, (byte) 1);
+            list.remove(3);
+        }
+        try (FileBackedNumberList list = FileBackedNumberList.open(file)) {
+            assertEquals("1" + OCTAL.substring(0, 2) + OCTAL.substring(3) + "7", list.toString());
+        }
+    }
+
+    @Test
+    public void testPagingThroughSmallWindows() throws IOException {
+        // 8-байтові вікна й лише два одночасно: кожне проходження перевідображає файл
+        Random random = new Random(34);
+        StringBuilder expected = new StringBuilder();
+        try (FileBackedNumberList list = FileBackedNumberList.create(directory.resolve("paged.nl"), 8, 8, 2, false)) {
+            for (int i = 0; i < 1000; i++) {
+                byte digit = (byte) random.nextInt(8);
+                list.append(digit);
+                expected.append(digit);
+            }
+            assertEquals(expected.toString(), list.toString());
+            for (int i = 999; i >= 0; i -= 37) {
+                assertEquals((byte) (expected.charAt(i) - '0'), list.digit(i));
+            }
+            list.set(500, (byte) 0);
+            expected.setCharAt(500, '0');
+            assertEquals(expected.toString(), list.toString());
+        }
+    }
+
+    @Test
+    public void testStreamingAdditionMatchesBigInteger() throws IOException {
+        Random random = new Random(35);
+        for (int round = 0; round < 50; round++) {
+            BigInteger a = new BigInteger(random.nextInt(600), random);
+            BigInteger b = new BigInteger(random.nextInt(600), random);
+            Path sumFile = directory.resolve("sum" + round + ".nl");
+            try (FileBackedNumberList x = FileBackedNumberList.create(directory.resolve("a.nl"), 8, 16, 2, false);
+                 FileBackedNumberList y = FileBackedNumberList.create(directory.resolve("b.nl"), 8, 16, 2, false)) {
+                x.addAll(new NumberListImpl(a.toString()));
+                y.addAll(new NumberListImpl(b.toString()));
+                try (FileBackedNumberList sum = x.add(y, sumFile)) {
+                    assertEquals(a.add(b).toString(), sum.toDecimalString());
+                    assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(x.compareTo(y)));
+                    assertTrue("Sum is not less than addend", sum.compareTo(x) >= 0);
+                }
+            }
+            assertTrue(Files.exists(sumFile));
+        }
+    }
+
+    @Test
+    public void testTemporarySumIsDeletedOnClose() throws IOException {
+        try (FileBackedNumberList list = FileBackedNumberList.copyOf(new NumberListImpl("777"),
+                directory.resolve("number.nl"))) {
+            FileBackedNumberList sum = list.additionalOperation(new NumberListImpl("1"));
+            assertEquals("778", sum.toDecimalString());
+            sum.close();
+
+            try (var files = Files.list(directory)) {
+                assertEquals("Only the source file remains", 1, files.count());
+            }
+        }
+    }
+
+    @Test
+    public void testFailedCopyLeavesNoFile() throws IOException {
+        // список невідомого типу вважається вісімковим, тож цифра 9 відхиляється посеред копіювання
+        NumberList foreign = (NumberList) Proxy.newProxyInstance(NumberList.class.getClassLoader(),
+                new Class<?>[] {NumberList.class},
+                (proxy, method, args) -> method.getName().equals("iterator")
+                        ? Arrays.asList((byte) 1, (byte) 2, (byte) 9).iterator() : null);
+        try {
+            FileBackedNumberList.copyOf(foreign, directory.resolve("copy.nl"));
+            fail("Foreign digit must be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertFalse(Files.exists(directory.resolve("copy.nl")));
+        }
+
+        try (FileBackedNumberList list = FileBackedNumberList.copyOf(new NumberListImpl("777"),
+                directory.resolve("number.nl"))) {
+            try {
+                list.additionalOperation(foreign);
+                fail("Foreign digit must be rejected");
+            } catch (IllegalArgumentException expected) {
+                try (var files = Files.list(directory)) {
+                    assertEquals("Only the source file remains", 1, files.count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadingDoesNotGrowFile() throws IOException {
+        Path file = directory.resolve("number.nl");
+        FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL), file).close();
+        long size = Files.size(file);
+
+        try (FileBackedNumberList list = FileBackedNumberList.open(file);
+             FileBackedNumberList same = FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL),
+                     directory.resolve("same.nl"))) {
+            assertEquals(0, list.compareTo(same));
+            assertEquals("Mapping for reading must not extend the file", size, Files.size(file));
+
+            list.append((byte) 7);
+            list.append((byte) 7);
+            assertTrue(Files.size(file) < size + (1 << 16));
+        }
+        assertEquals(size + 1, Files.size(file));
+    }
+
+    @Test
+    public void testReadOnlyFile() throws IOException {
+        Path file = directory.resolve("number.nl");
+        FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL), file).close();
+        assertTrue(file.toFile().setReadOnly());
+        assumeFalse("Permissions are not enforced for this user", Files.isWritable(file));
+
+        try (FileBackedNumberList list = FileBackedNumberList.open(file)) {
+            assertEquals(OCTAL, list.toString());
+            try {
+                list.append((byte) 1);
+                fail("Read-only list must not change");
+            } catch (UnsupportedOperationException expected) {
+                assertEquals(OCTAL.length(), list.digitCount());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompareRejectsOtherBase() throws IOException {
+        try (FileBackedNumberList octal = FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL), directory.resolve("a.nl"));
+             FileBackedNumberList decimal = FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL).changeScale(),
+                     directory.resolve("b.nl"))) {
+            octal.compareTo(decimal);
+        }
+    }
+
+    @Test
+    public void testClosedListRejectsAccess() throws IOException {
+        FileBackedNumberList list = FileBackedNumberList.copyOf(new NumberListImpl(DECIMAL), directory.resolve("n.nl"));
+        list.close();
+        list.close();
+        try {
+            list.get(0);
+            fail("Closed list must not be readable");
+        } catch (IllegalStateException expected) {
+            assertFalse(expected.getMessage().isEmpty());
+        }
+    }
+}
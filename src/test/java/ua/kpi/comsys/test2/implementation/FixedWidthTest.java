@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FixedWidthTest {
+
+    @Test
+    public void testEnableResizes() {
+        NumberListImpl list = new NumberListImpl("8"); // 10 у вісімковій
+        list.enableFixedWidth(4);
+        assertEquals("0010", list.toString());
+        assertEquals(4, list.fixedWidth());
+        assertFalse(list.carryOut());
+
+        list.enableFixedWidth(1); // старша одиниця відкидається
+        assertEquals("0", list.toString());
+        assertTrue(list.carryOut());
+
+        list.disableFixedWidth();
+        assertEquals(0, list.fixedWidth());
+        list.add((byte) 7);
+        assertEquals("07", list.toString());
+    }
+
+    @Test
+    public void testIncrementWraps() {
+        NumberListImpl list = new NumberListImpl("0");
+        list.enableFixedWidth(2);
+        list.incrementBy(63); // 77
+        assertFalse(list.carryOut());
+        assertEquals("77", list.toString());
+
+        list.incrementBy(1);
+        assertTrue(list.carryOut());
+        assertEquals("00", list.toString());
+        assertEquals(2, list.size());
+
+        list.addSmall(64 * 5 + 9); // старші за регістр цифри доданка - теж перенос
+        assertTrue(list.carryOut());
+        assertEquals("11", list.toString());
+
+        list.incrementBy(1);
+        assertFalse(list.carryOut());
+    }
+
+    @Test
+    public void testZeroAddendClearsCarry() {
+        NumberListImpl list = new NumberListImpl("63"); // 77
+        list.enableFixedWidth(2);
+        list.incrementBy(1);
+        assertTrue(list.carryOut());
+        list.incrementBy(0);
+        assertFalse(list.carryOut());
+
+        list.incrementBy(64);
+        assertTrue(list.carryOut());
+        list.addSmall(0);
+        assertFalse(list.carryOut());
+
+        list.addInPlace(new NumberListImpl("64"));
+        assertTrue(list.carryOut());
+        list.addInPlace(new NumberListImpl());
+        assertFalse(list.carryOut());
+        assertEquals("00", list.toString());
+    }
+
+    @Test
+    public void testMatchesBigIntegerModulo() {
+        Random random = new Random(50);
+        int width = 40;
+        BigInteger modulus = BigInteger.valueOf(8).pow(width);
+        BigInteger value = BigInteger.ZERO;
+        NumberListImpl list = new NumberListImpl();
+        list.enableFixedWidth(width);
+
+        for (int round = 0; round < 500; round++) {
+            BigInteger sum;
+            switch (random.nextInt(3)) {
+                case 0:
+                    BigInteger addend = new BigInteger(1 + random.nextInt(150), random);
+                    list.addInPlace(new NumberListImpl(addend.toString()));
+                    sum = value.add(addend);
+                    break;
+                case 1:
+                    long increment = random.nextLong() >>> 1;
+                    list.incrementBy(increment);
+                    sum = value.add(BigInteger.valueOf(increment));
+                    break;
+                default:
+                    long factor = random.nextLong() >>> (4 + random.nextInt(60));
+                    list.multiplySmall(factor);
+                    sum = value.multiply(BigInteger.valueOf(factor));
+                    break;
+            }
+            value = sum.mod(modulus);
+            assertEquals("round " + round, sum.compareTo(modulus) >= 0, list.carryOut());
+            assertEquals("round " + round, value.toString(), list.toDecimalString());
+            assertEquals(width, list.size());
+        }
+
+        list.divideSmall(1 << 20);
+        assertFalse(list.carryOut());
+        assertEquals(width, list.size());
+        assertEquals(value.shiftRight(20).toString(), list.toDecimalString());
+    }
+
+    @Test
+    public void testDigitIndexStaysConsistent() {
+        NumberListImpl list = new NumberListImpl("4095"); // 7777
+        list.enableDigitIndex();
+        list.enableFixedWidth(6);
+        list.incrementBy(8 * 8 * 8 * 8 * 8 * 8 - 4095 + 3);
+
+        assertEquals("000003", list.toString());
+        assertEquals(5, list.countOf((byte) 0));
+        assertEquals(0, list.countOf((byte) 7));
+        assertEquals(4, list.lastIndexOf((byte) 0));
+        assertEquals(5, list.indexOf((byte) 3));
+    }
+
+    @Test
+    public void testSizeIsFixed() {
+        NumberListImpl list = new NumberListImpl("100");
+        list.enableFixedWidth(5);
+        Runnable[] resizes = {
+            () -> list.add((byte) 1),
+            () -> list.add(0, (byte) 1),
+            () -> list.remove(0),
+            () -> list.remove(Byte.valueOf((byte) 0)),
+            () -> list.clear(),
+            () -> {
+                Iterator<Byte> it = list.iterator();
+                it.next();
+                it.remove();
+            }
+        };
+        for (Runnable resize : resizes) {
+            try {
+                resize.run();
+                throw new AssertionError("Size changed");
+            } catch (UnsupportedOperationException e) {
+                // очікувано
+            }
+        }
+        assertEquals("00144", list.toString());
+
+        // зміни без зміни розміру дозволено
+        list.set(0, (byte) 3);
+        list.shiftLeft();
+        list.sortAscending();
+        list.swap(0, 4);
+        assertEquals(5, list.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroWidth() {
+        new NumberListImpl("1").enableFixedWidth(0);
+    }
+}
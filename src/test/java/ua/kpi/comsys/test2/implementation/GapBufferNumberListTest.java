@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GapBufferNumberListTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    GapBufferNumberList list = new GapBufferNumberList();
+
+    @After
+    public void tearDown() {
+        list.clear();
+    }
+
+    @Test
+    public void testConversions() {
+        list = new GapBufferNumberList(DECIMAL);
+        assertEquals(OCTAL, list.toString());
+        assertEquals(DECIMAL, list.toDecimalString());
+        assertEquals(DECIMAL, list.changeScale().toString());
+        assertEquals(list.size(), list.cursor());
+
+        NumberListImpl impl = list.toNumberListImpl();
+        assertEquals(OCTAL, impl.toString());
+        assertEquals(list, impl);
+        assertEquals(list, new GapBufferNumberList(impl));
+        assertEquals(list, new GapBufferNumberList(new RunLengthNumberList(DECIMAL)));
+    }
+
+    @Test
+    public void testCursorEditing() {
+        list = new GapBufferNumberList("12345");  // 30071 у вісімковій
+        list.moveCursor(2);
+        list.insert((byte) 5);
+        list.insert((byte) 6);
+        assertEquals("3056071", list.toString());
+        assertEquals(4, list.cursor());
+
+        assertEquals((byte) 6, list.deleteBackward());
+        assertEquals((byte) 0, list.deleteForward());
+        assertEquals("30571", list.toString());
+        assertEquals((byte) 7, list.overwrite((byte) 2));
+        assertEquals("30521", list.toString());
+        assertEquals(4, list.cursor());
+
+        list.moveCursor(0);
+        list.insert((byte) 1);
+        assertEquals("130521", list.toString());
+        assertEquals((byte) 3, (byte) list.get(1));
+    }
+
+    @Test
+    public void testMatchesArrayListUnderRandomEdits() {
+        Random random = new Random(46);
+        List<Byte> expected = new ArrayList<>();
+        for (int round = 0; round < 20_000; round++) {
+            int op = random.nextInt(6);
+            if (op < 3 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                byte digit = (byte) random.nextInt(8);
+                expected.add(index, digit);
+                list.add(index, digit);
+            } else if (op == 3) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else if (op == 4) {
+                int index = random.nextInt(expected.size());
+                byte digit = (byte) random.nextInt(8);
+                assertEquals(expected.set(index, digit), list.set(index, digit));
+            } else {
+                list.moveCursor(random.nextInt(list.size() + 1));
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(expected, new ArrayList<>(list.toNumberListImpl()));
+
+        ListIterator<Byte> it = list.listIterator(list.size() / 2);
+        it.add((byte) 7);
+        expected.add(expected.size() / 2, (byte) 7);
+        assertEquals(expected, list);
+    }
+
+    @Test
+    public void testLocalEditsOnLargeNumber() {
+        BigInteger value = new BigInteger(3_000_000, new Random(46));
+        NumberListImpl source = new NumberListImpl(value.toString());
+        list = new GapBufferNumberList(source);
+        int middle = list.size() / 2;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(middle + (i & 7), (byte) 3);
+            list.remove(middle + (i & 7));
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue("Local edits took " + elapsed / 1_000_000 + " ms", elapsed < 2_000_000_000L);
+        assertEquals(source.toString(), list.toString());
+        assertEquals(value.toString(), list.toDecimalString());
+    }
+
+    @Test
+    public void testListOperations() {
+        list = new GapBufferNumberList(DECIMAL);
+        list.shiftLeft();
+        assertEquals(OCTAL.substring(1) + OCTAL.charAt(0), list.toString());
+        list.shiftRight();
+        list.shiftRight();
+        assertEquals(OCTAL.charAt(OCTAL.length() - 1) + OCTAL.substring(0, OCTAL.length() - 1), list.toString());
+        list.sortAscending();
+        assertEquals((byte) 0, (byte) list.get(0));
+        list.swap(0, list.size() - 1);
+        assertEquals((byte) 7, (byte) list.get(0));
+
+        GapBufferNumberList sum = new GapBufferNumberList("999").additionalOperation(new NumberListImpl("1"));
+        assertEquals("1000", sum.toDecimalString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testDeleteBackwardAtStart() {
+        list.add((byte) 1);
+        list.moveCursor(0);
+        list.deleteBackward();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertRejectsForeignDigit() {
+        list.insert((byte) 8);
+    }
+}
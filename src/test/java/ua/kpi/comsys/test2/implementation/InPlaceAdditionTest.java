@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InPlaceAdditionTest {
+    NumberListImpl list1;
+    NumberListImpl list2;
+
+    @After
+    public void tearDown() {
+        if (list1 != null) {
+            list1.clear();
+            list1 = null;
+        }
+        if (list2 != null) {
+            list2.clear();
+            list2 = null;
+        }
+    }
+
+    @Test
+    public void testAddInPlaceMatchesBigInteger() {
+        Random random = new Random(30);
+        for (int round = 0; round < 200; round++) {
+            BigInteger a = new BigInteger(random.nextInt(300), random);
+            BigInteger b = new BigInteger(random.nextInt(300), random);
+            list1 = new NumberListImpl(a.toString());
+            list2 = new NumberListImpl(b.toString());
+
+            list1.addInPlace(list2);
+
+            assertEquals("Wrong sum", a.add(b).toString(), list1.toDecimalString());
+            assertEquals("Addend was modified", b.toString(), list2.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testCarryGrowsMostSignificantEnd() {
+        list1 = new NumberListImpl("511"); // 777 у вісімковій
+        list2 = new NumberListImpl("1");
+
+        list1.addInPlace(list2);
+        assertEquals("1000", list1.toString());
+
+        list1.addInPlace(list1);
+        assertEquals("2000", list1.toString());
+    }
+
+    @Test
+    public void testAddToEmptyList() {
+        list1 = new NumberListImpl();
+        list2 = new NumberListImpl("100");
+
+        list1.addInPlace(list2);
+        assertEquals("100", list1.toDecimalString());
+    }
+
+    @Test
+    public void testIncrementBy() {
+        list1 = new NumberListImpl("18446744073709551615");
+        list1.incrementBy(Long.MAX_VALUE);
+        list1.incrementBy(0);
+        list1.incrementBy(1);
+
+        BigInteger expected = new BigInteger("18446744073709551616").add(BigInteger.valueOf(Long.MAX_VALUE));
+        assertEquals(expected.toString(), list1.toDecimalString());
+
+        try {
+            list1.incrementBy(-1);
+            fail("Negative addend must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(expected.toString(), list1.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testInvalidAddendLeavesListUnchanged() {
+        list1 = new NumberListImpl("8");
+        list2 = new NumberListImpl("9").changeScale(); // цифра 9 поза вісімковою системою
+
+        try {
+            list1.addInPlace(list2);
+            fail("Digit out of range must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("10", list1.toString());
+        }
+    }
+
+    @Test
+    public void testRunningTotalAllocatesLittle() {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        list1 = new NumberListImpl("1" + "0".repeat(2000));
+        list2 = new NumberListImpl("7".repeat(1000));
+        for (int i = 0; i < 100; i++) {
+            list1.addInPlace(list2);
+        }
+
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1000; i++) {
+            list1.addInPlace(list2);
+        }
+        long perCall = (bean.getCurrentThreadAllocatedBytes() - before) / 1000;
+
+        assertTrue("Too many bytes allocated per addition: " + perCall, perCall < 256);
+    }
+}
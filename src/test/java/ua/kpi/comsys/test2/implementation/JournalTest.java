@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JournalTest {
+    File file;
+    Path journal;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("number", ".txt").toFile();
+        journal = Journal.sidecar(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(journal);
+    }
+
+    @Test
+    public void testCheckpointWritesOnlyChanges() throws IOException {
+        NumberListImpl list = new NumberListImpl(new BigInteger(200_000, new Random(45)).toString());
+        list.enableJournal(file);
+        long snapshotBytes = Files.size(file.toPath());
+        byte[] snapshot = Files.readAllBytes(file.toPath());
+
+        list.set(10, (byte) 3);
+        list.incrementBy(12345);
+        list.saveList(file); // той самий файл - контрольна точка
+        list.remove(5);
+        list.add(0, (byte) 7);
+        list.checkpoint();
+
+        assertArrayEquals("Snapshot was rewritten", snapshot, Files.readAllBytes(file.toPath()));
+        assertTrue("Journal is not small: " + Files.size(journal), Files.size(journal) < 100);
+        assertTrue(snapshotBytes > 50_000);
+        assertEquals(list, new NumberListImpl(file));
+    }
+
+    @Test
+    public void testReplayOfAllMutations() {
+        NumberListImpl list = new NumberListImpl("98765432109876543210");
+        list.enableJournal(file);
+        list.add((byte) 1);
+        list.add(3, (byte) 6);
+        list.set(0, (byte) 0); // провідний нуль не зберігається в десятковому знімку
+        list.remove(Byte.valueOf((byte) 7));
+        list.shiftLeft();
+        list.shiftRight();
+        list.shiftRight();
+        list.swap(1, 4);
+        list.addInPlace(new NumberListImpl("777"));
+        list.incrementBy(1 << 20);
+        list.multiplySmall(1000);
+        list.divideSmall(7);
+        list.checkpoint();
+
+        NumberListImpl loaded = new NumberListImpl(file);
+        assertEquals(list.toString(), loaded.toString());
+        assertEquals(list.size(), loaded.size());
+
+        list.sortDescending();
+        list.checkpoint();
+        assertEquals(list.toString(), new NumberListImpl(file).toString());
+
+        list.clear();
+        list.add((byte) 5);
+        list.checkpoint();
+        assertEquals("5", new NumberListImpl(file).toString());
+    }
+
+    @Test
+    public void testEmptyListAndLeadingZeros() {
+        NumberListImpl list = new NumberListImpl();
+        list.enableJournal(file);
+        assertEquals(0, new NumberListImpl(file).size());
+
+        list.add((byte) 0);
+        list.add((byte) 0);
+        list.add((byte) 4);
+        list.compact();
+        NumberListImpl loaded = new NumberListImpl(file);
+        assertEquals("004", loaded.toString());
+        assertEquals(3, loaded.size());
+    }
+
+    @Test
+    public void testFixedWidthIsReplayedAndSurvivesCompaction() {
+        NumberListImpl list = new NumberListImpl("500");
+        list.enableJournal(file);
+        list.enableFixedWidth(3); // 500 = 764 у вісімковій
+        list.incrementBy(12); // 1000 за модулем 8^3
+        list.checkpoint();
+
+        NumberListImpl loaded = new NumberListImpl(file);
+        assertEquals("000", loaded.toString());
+        assertEquals(3, loaded.fixedWidth());
+
+        list.compact();
+        loaded = new NumberListImpl(file);
+        assertEquals(3, loaded.fixedWidth());
+        loaded.incrementBy(513);
+        assertEquals("001", loaded.toString());
+
+        list.disableFixedWidth();
+        list.incrementBy(512);
+        list.checkpoint();
+        loaded = new NumberListImpl(file);
+        assertEquals(0, loaded.fixedWidth());
+        assertEquals("1000", loaded.toString());
+    }
+
+    @Test
+    public void testTornTailIsIgnored() throws IOException {
+        NumberListImpl list = new NumberListImpl("1000");
+        list.enableJournal(file);
+        list.set(0, (byte) 2);
+        list.checkpoint();
+        String expected = list.toString();
+
+        list.set(0, (byte) 3);
+        list.checkpoint();
+        byte[] bytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(bytes, bytes.length - 1)); // обірваний останній пакет
+        assertEquals(expected, new NumberListImpl(file).toString());
+
+        Files.write(journal, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        assertEquals(expected, new NumberListImpl(file).toString());
+    }
+
+    @Test
+    public void testInapplicableFrameFallsBackToSnapshot() throws IOException {
+        NumberListImpl list = new NumberListImpl("1000");
+        list.enableJournal(file);
+        list.set(0, (byte) 2);
+        list.add((byte) 5);
+        list.checkpoint();
+        assertEquals("27505", new NumberListImpl(file).toString());
+        byte[] valid = Files.readAllBytes(journal);
+
+        // пакети цілі за CRC32, але не застосовуються: невідомий запис і позиція поза списком
+        byte[][] payloads = {{99}, {2, 100, 1}};
+        for (byte[] payload : payloads) {
+            Files.write(journal, valid);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+            frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            Files.write(journal, frame.array(), StandardOpenOption.APPEND);
+
+            NumberListImpl loaded = new NumberListImpl(file);
+            assertEquals("1000", loaded.toDecimalString());
+            assertEquals(4, loaded.size());
+        }
+    }
+
+    @Test
+    public void testPlainSaveDropsStaleJournal() {
+        NumberListImpl list = new NumberListImpl("5");
+        list.enableJournal(file);
+        list.incrementBy(1);
+        list.checkpoint();
+
+        // той самий відбиток, що в заголовку журналу, - без видалення журналу його записи відтворились би
+        new NumberListImpl("5").saveList(file);
+        assertFalse(Files.exists(journal));
+        assertEquals("5", new NumberListImpl(file).toDecimalString());
+    }
+
+    @Test
+    public void testForeignSnapshotIgnoresJournal() {
+        NumberListImpl list = new NumberListImpl("1000");
+        list.enableJournal(file);
+        list.set(0, (byte) 2);
+        list.checkpoint();
+
+        new NumberListImpl("4242").saveList(file); // звичайне збереження іншого числа
+        assertEquals("4242", new NumberListImpl(file).toDecimalString());
+    }
+
+    @Test
+    public void testAutomaticCompaction() throws IOException {
+        NumberListImpl list = new NumberListImpl("1");
+        list.enableJournal(file);
+        for (int i = 0; i < 20_000; i++) {
+            list.add((byte) (i % 8));
+            if (i % 100 == 0) {
+                list.checkpoint();
+            }
+        }
+        list.checkpoint();
+        assertTrue("Journal was not compacted: " + Files.size(journal), Files.size(journal) < 1 << 16);
+        assertEquals(list, new NumberListImpl(file));
+
+        list.disableJournal();
+        list.set(0, (byte) 5);
+        assertFalse(list.equals(new NumberListImpl(file)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCheckpointWithoutJournal() {
+        new NumberListImpl("1").checkpoint();
+    }
+}
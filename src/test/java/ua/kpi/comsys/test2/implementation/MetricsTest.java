@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+    static String FILE_BIG = "src/test/resources/BigNumber.txt";
+
+    @Before
+    public void setUp() {
+        NumberListMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        NumberListMetrics.reset();
+    }
+
+    @Test
+    public void testOperationsAreCounted() {
+        NumberListImpl list1 = new NumberListImpl(new File(FILE_BIG));
+        NumberListImpl list2 = new NumberListImpl("15");
+
+        list1.additionalOperation(list2);
+        list1.changeScale();
+        list1.changeScale();
+
+        assertEquals(1, NumberListMetrics.timer(NumberListMetrics.LOAD).count());
+        assertEquals(1, NumberListMetrics.timer(NumberListMetrics.ADDITIONAL_OPERATION).count());
+        assertEquals("Cached conversion should not be recorded",
+                1, NumberListMetrics.timer(NumberListMetrics.CHANGE_SCALE).count());
+        assertTrue(NumberListMetrics.timer(NumberListMetrics.LOAD).totalNanos() > 0);
+        assertTrue(NumberListMetrics.timers().containsKey(NumberListMetrics.ADDITIONAL_OPERATION));
+    }
+
+    @Test
+    public void testPercentiles() {
+        NumberListMetrics.Timer timer = NumberListMetrics.timer("test");
+        for (int i = 0; i < 99; i++) {
+            timer.record(100);
+        }
+        timer.record(1_000_000);
+
+        assertEquals(127, timer.percentileNanos(50));
+        assertEquals(127, timer.percentileNanos(99));
+        assertEquals((1L << 20) - 1, timer.percentileNanos(100));
+        assertEquals(1_000_000, timer.maxNanos());
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws IOException {
+        Path dump = Files.createTempFile("numberlist", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ConversionEvent.class);
+            recording.enable(ArithmeticEvent.class);
+            recording.start();
+
+            NumberListImpl list = new NumberListImpl("1212144468782345613");
+            list.changeScale();
+            list.additionalOperation(list);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+
+        boolean conversion = false;
+        boolean arithmetic = false;
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.equals("ua.kpi.comsys.test2.Conversion")) {
+                conversion = true;
+                assertEquals(8, event.getInt("sourceBase"));
+                assertEquals(10, event.getInt("targetBase"));
+                assertEquals(19, event.getLong("resultDigits"));
+            } else if (name.equals("ua.kpi.comsys.test2.Arithmetic")) {
+                arithmetic = true;
+                assertEquals(21, event.getLong("leftDigits"));
+            }
+        }
+        assertTrue("Conversion event was not recorded", conversion);
+        assertTrue("Arithmetic event was not recorded", arithmetic);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModPowTest {
+
+    @After
+    public void tearDown() {
+        ModularContext.clear();
+    }
+
+    @Test
+    public void testMatchesBigIntegerModPow() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(600), random);
+            BigInteger e = new BigInteger(random.nextInt(round < 100 ? 40 : 700), random);
+            BigInteger m = new BigInteger(1 + random.nextInt(500), random).add(BigInteger.ONE);
+            if (round % 3 == 0) {
+                m = m.shiftLeft(random.nextInt(40)); // парні модулі - редукція Барретта
+            }
+            assertEquals(a + "^" + e + " mod " + m, a.modPow(e, m).toString(),
+                    new NumberListImpl(a.toString()).modPow(new NumberListImpl(e.toString()),
+                            new NumberListImpl(m.toString())).toDecimalString());
+        }
+    }
+
+    @Test
+    public void testDecimalLists() {
+        Random random = new Random(43);
+        for (int round = 0; round < 60; round++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(300), random);
+            BigInteger e = new BigInteger(random.nextInt(300), random);
+            BigInteger m = new BigInteger(1 + random.nextInt(300), random).add(BigInteger.ONE);
+            if (round % 2 == 0) {
+                m = m.multiply(BigInteger.TEN.pow(random.nextInt(5))); // не взаємно прості з 10^9
+            }
+            NumberListImpl result = decimal(a).modPow(decimal(e), decimal(m));
+            assertEquals(a.modPow(e, m).toString(), digitsOf(result));
+        }
+    }
+
+    @Test
+    public void testEdgeCases() {
+        NumberListImpl seven = new NumberListImpl("7");
+        assertEquals("1", seven.modPow(new NumberListImpl("0"), new NumberListImpl("10")).toDecimalString());
+        assertEquals("0", seven.modPow(new NumberListImpl("0"), new NumberListImpl("1")).toDecimalString());
+        assertEquals("0", new NumberListImpl("0").modPow(new NumberListImpl("5"), new NumberListImpl("9")).toDecimalString());
+        assertEquals("0", new NumberListImpl().modPow(new NumberListImpl("5"), new NumberListImpl("9")).toDecimalString());
+        assertEquals("7", seven.modPow(new NumberListImpl("1"), new NumberListImpl("100")).toDecimalString());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testZeroModulus() {
+        new NumberListImpl("7").modPow(new NumberListImpl("2"), new NumberListImpl("0"));
+    }
+
+    @Test
+    public void testContextIsReused() {
+        LimbNumber odd = LimbNumber.fromDigits(8, new byte[] {7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 5}, 0, 12);
+        LimbNumber even = LimbNumber.fromDigits(8, new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, 0, 12);
+        assertSame(ModularContext.of(odd), ModularContext.of(odd));
+        assertTrue("Odd modulus uses Montgomery multiplication", ModularContext.of(odd).montgomery);
+        assertFalse("Even modulus uses Barrett reduction", ModularContext.of(even).montgomery);
+    }
+
+    private static NumberListImpl decimal(BigInteger value) {
+        NumberListImpl list = new NumberListImpl(value.toString()).changeScale();
+        assertEquals(value.toString(), digitsOf(list));
+        return list;
+    }
+
+    private static String digitsOf(NumberListImpl list) {
+        StringBuilder digits = new StringBuilder();
+        for (byte digit : list) {
+            digits.append(digit);
+        }
+        return digits.length() == 0 ? "0" : digits.toString();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodePoolTest {
+    static int CAPACITY = 1 << 14;
+
+    NumberListImpl list;
+
+    @Before
+    public void setUp() {
+        NumberListImpl.setNodePoolCapacity(CAPACITY);
+    }
+
+    @After
+    public void tearDown() {
+        NumberListImpl.setNodePoolCapacity(0); // пул за замовчуванням вимкнено
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testIteratorRemovesReturnedElement() {
+        list = digits(1, 2, 1, 3);
+
+        Iterator<Byte> it = list.iterator();
+        it.next();
+        it.next();
+        it.next();
+        it.remove();
+
+        assertEquals("Iterator removed wrong occurrence", "123", list.toString());
+        assertTrue(it.hasNext());
+        assertEquals(Byte.valueOf((byte) 3), it.next());
+    }
+
+    @Test
+    public void testRemoveAllAndRetainAll() {
+        list = digits(7, 1, 7, 2, 7);
+        list.removeAll(Arrays.asList((byte) 7));
+        assertEquals("12", list.toString());
+
+        list.addAll(Arrays.asList((byte) 3, (byte) 1));
+        list.retainAll(Arrays.asList((byte) 1));
+        assertEquals("11", list.toString());
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void testRecycledNodesKeepListConsistent() {
+        list = digits(1, 2, 3, 4, 5);
+        list.remove(0);
+        list.remove(3);
+        list.remove((Object) (byte) 3);
+        assertEquals("24", list.toString());
+
+        list.add(0, (byte) 7);
+        list.add((byte) 6);
+        assertEquals("7246", list.toString());
+
+        list.shiftRight();
+        assertEquals("6724", list.toString());
+        list.shiftLeft();
+        assertEquals("7246", list.toString());
+    }
+
+    @Test
+    public void testRebuildAfterClearReusesNodes() {
+        NumberListImpl.setNodePoolCapacity(CAPACITY);
+        long pooled = rebuildAllocation();
+
+        NumberListImpl.setNodePoolCapacity(0);
+        long unpooled = rebuildAllocation();
+
+        assertTrue("Pool did not reduce allocation: " + pooled + " vs " + unpooled,
+                pooled * 4 < unpooled);
+    }
+
+    private long rebuildAllocation() {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        list = new NumberListImpl();
+        fill(list);
+        list.clear();
+
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < 10; round++) {
+            fill(list);
+            list.clear();
+        }
+        return bean.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static void fill(NumberListImpl list) {
+        for (int i = 0; i < 10_000; i++) {
+            list.add((byte) (i % 8));
+        }
+    }
+
+    private static NumberListImpl digits(int... digits) {
+        NumberListImpl list = new NumberListImpl();
+        for (int digit : digits) {
+            list.add((byte) digit);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NumberExpressionTest {
+
+    @Test
+    public void testFormulaMatchesBigInteger() {
+        Random random = new Random(44);
+        for (int round = 0; round < 50; round++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(3000), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(3000), random);
+            BigInteger c = new BigInteger(1 + random.nextInt(3000), random);
+            BigInteger d = new BigInteger(1 + random.nextInt(3000), random);
+
+            NumberExpression expression = NumberExpression.of(list(a)).add(list(b)).multiply(list(c)).add(list(d));
+            assertEquals(a.add(b).multiply(c).add(d).toString(), expression.evaluate().toDecimalString());
+        }
+    }
+
+    @Test
+    public void testLongSumIsOneSweep() {
+        Random random = new Random(45);
+        BigInteger expected = BigInteger.ZERO;
+        NumberExpression sum = NumberExpression.of(new NumberListImpl());
+        for (int i = 0; i < 500; i++) {
+            BigInteger term = new BigInteger(1 + random.nextInt(500), random);
+            expected = expected.add(term);
+            sum = sum.add(list(term));
+        }
+        assertEquals(expected.toString(), sum.evaluate().toDecimalString());
+    }
+
+    @Test
+    public void testSharedSubexpressions() {
+        NumberListImpl a = new NumberListImpl("123456789123456789");
+        NumberListImpl b = new NumberListImpl("987654321");
+        NumberExpression shared = NumberExpression.of(a).add(b);
+        NumberExpression square = shared.multiply(shared).add(shared);
+
+        BigInteger s = new BigInteger("123456789123456789").add(new BigInteger("987654321"));
+        assertEquals(s.multiply(s).add(s).toString(), square.evaluate().toDecimalString());
+
+        // вираз не копіює операнди: після зміни списку обчислюється нове значення
+        a.clear();
+        a.add((byte) 1);
+        s = BigInteger.ONE.add(new BigInteger("987654321"));
+        assertEquals(s.multiply(s).add(s).toString(), square.evaluate().toDecimalString());
+    }
+
+    @Test
+    public void testOtherListTypesAndBases() {
+        NumberExpression expression = NumberExpression.of(new RunLengthNumberList("777777777777"))
+                .add(new NumberListImpl("4095")).multiply(new NumberListImpl("2"));
+        assertEquals(new BigInteger("777777777777").add(new BigInteger("4095")).multiply(BigInteger.TWO).toString(),
+                expression.evaluate().toDecimalString());
+
+        NumberListImpl decimal = new NumberListImpl("99").changeScale();
+        NumberListImpl result = NumberExpression.of(decimal).multiply(decimal).add(decimal).evaluate();
+        assertEquals("9900", result.toString());
+    }
+
+    @Test
+    public void testZeroAndEmptyOperands() {
+        assertEquals("0", NumberExpression.of(new NumberListImpl()).evaluate().toString());
+        assertEquals("0", NumberExpression.of(new NumberListImpl("5")).multiply(new NumberListImpl("0")).evaluate().toString());
+        assertEquals("5", NumberExpression.of(new NumberListImpl()).add(new NumberListImpl("5")).evaluate().toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignDigitIsRejected() {
+        NumberExpression.of(new NumberListImpl("12")).add(new NumberListImpl("99").changeScale()).evaluate();
+    }
+
+    private static NumberListImpl list(BigInteger value) {
+        return new NumberListImpl(value.toString());
+    }
+}
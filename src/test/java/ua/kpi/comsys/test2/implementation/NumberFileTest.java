@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NumberFileTest {
+    Path file;
+
+    @After
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        file = Files.createTempFile("numbers", ".txt");
+        Random random = new Random(39);
+        List<BigInteger> values = new ArrayList<>();
+        try (NumberFileWriter writer = new NumberFileWriter(file)) {
+            for (int i = 0; i < 20_000; i++) {
+                BigInteger value = new BigInteger(i == 500 ? 20_000 : random.nextInt(200), random);
+                values.add(value);
+                writer.write(new NumberListImpl(value.toString()));
+            }
+            writer.write(new RunLengthNumberList("777"));
+            values.add(BigInteger.valueOf(777));
+        }
+
+        try (NumberFileReader reader = new NumberFileReader(file)) {
+            List<NumberListImpl> all = reader.readAll();
+            assertEquals(values.size(), all.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals("Record " + i, values.get(i).toString(), all.get(i).toDecimalString());
+            }
+
+            int i = 0;
+            for (NumberListImpl number : reader) {
+                assertEquals(values.get(i++).toString(), number.toDecimalString());
+            }
+            assertEquals(values.size(), i);
+            assertEquals(values.size(), reader.stream().count());
+        }
+    }
+
+    @Test
+    public void testLineEndingsAndErrors() throws IOException {
+        file = Files.createTempFile("numbers", ".txt");
+        Files.writeString(file, "12\r\n 0034 \n5x6\n");
+        try (NumberFileReader reader = new NumberFileReader(file)) {
+            Iterator<NumberListImpl> it = reader.iterator();
+            assertEquals("14", it.next().toString());
+            assertEquals("42", it.next().toString());
+            assertTrue(it.hasNext());
+            try {
+                it.next();
+                fail("Invalid record must be reported");
+            } catch (NumberFormatException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("offset 11"));
+            }
+            assertFalse(it.hasNext());
+        }
+
+        Files.writeString(file, "");
+        try (NumberFileReader reader = new NumberFileReader(file)) {
+            assertTrue(reader.readAll().isEmpty());
+        }
+    }
+}
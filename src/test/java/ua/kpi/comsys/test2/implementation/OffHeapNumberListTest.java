@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OffHeapNumberListTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    OffHeapNumberList list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.close();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testConversions() {
+        list = new OffHeapNumberList(DECIMAL);
+        assertEquals(OCTAL, list.toString());
+        assertEquals(DECIMAL, list.toDecimalString());
+
+        try (OffHeapNumberList decimal = list.changeScale()) {
+            assertEquals(DECIMAL, decimal.toString());
+            assertEquals(DECIMAL, decimal.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testAdditionMatchesBigInteger() {
+        Random random = new Random(33);
+        for (int round = 0; round < 100; round++) {
+            BigInteger a = new BigInteger(random.nextInt(400), random);
+            BigInteger b = new BigInteger(random.nextInt(400), random);
+            try (OffHeapNumberList x = new OffHeapNumberList(a.toString());
+                 OffHeapNumberList sum = x.additionalOperation(new NumberListImpl(b.toString()))) {
+                assertEquals(a.add(b).toString(), sum.toDecimalString());
+                assertEquals(a.toString(), x.toDecimalString());
+            }
+        }
+    }
+
+    @Test
+    public void testListSemantics() {
+        list = new OffHeapNumberList();
+        for (int i = 0; i < 1000; i++) {
+            list.add((byte) (i % 8));
+        }
+        list.add(0, (byte) 7);
+        list.add(500, (byte) 6);
+        list.remove(0);
+        list.remove(1000);
+        assertEquals(1000, list.size());
+        assertEquals(Byte.valueOf((byte) 6), list.get(499));
+        assertEquals(Byte.valueOf((byte) 1), list.get(1));
+
+        NumberListImpl copy = new NumberListImpl();
+        for (Byte digit : list) {
+            copy.add(digit);
+        }
+        assertEquals(list, copy);
+        assertEquals(copy, list);
+
+        list.shiftRight();
+        list.shiftLeft();
+        assertEquals(copy, list);
+
+        list.sortAscending();
+        assertEquals(Byte.valueOf((byte) 0), list.get(0));
+        assertEquals(Byte.valueOf((byte) 7), list.get(999));
+        assertTrue(list.contains((byte) 6));
+    }
+
+    @Test
+    public void testCopyKeepsSourceBase() {
+        try (OffHeapNumberList octal = new OffHeapNumberList("15");
+             OffHeapNumberList decimal = octal.changeScale();
+             OffHeapNumberList copy = new OffHeapNumberList(decimal)) {
+            assertEquals("15", copy.toString());
+            assertEquals("15", copy.toDecimalString());
+        }
+
+        try (OffHeapNumberList octal = new OffHeapNumberList("99");
+             OffHeapNumberList decimal = octal.changeScale();
+             OffHeapNumberList copy = new OffHeapNumberList(decimal)) {
+            assertEquals("99", copy.toString());
+        }
+
+        GapBufferNumberList gap = new GapBufferNumberList(DECIMAL);
+        try (OffHeapNumberList copy = new OffHeapNumberList(gap)) {
+            assertEquals(gap.toString(), copy.toString());
+            assertEquals(DECIMAL, copy.toDecimalString());
+        }
+
+        // копія зі звичайного вісімкового списку
+        list = new OffHeapNumberList(new NumberListImpl(DECIMAL));
+        assertEquals(OCTAL, list.toString());
+    }
+
+    @Test
+    public void testAccessAfterClose() {
+        list = new OffHeapNumberList("15");
+        list.close();
+        list.close();
+
+        try {
+            list.get(0);
+            fail("Closed list must not be readable");
+        } catch (IllegalStateException e) {
+            // очікувано
+        }
+    }
+}
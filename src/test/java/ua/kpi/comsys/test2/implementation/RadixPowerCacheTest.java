@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RadixPowerCacheTest {
+
+    @Before
+    public void setUp() {
+        RadixPowerCache.clear();
+    }
+
+    @Test
+    public void testConvertMatchesBigInteger() {
+        Random random = new Random(7);
+        int[] bases = {2, 3, 8, 10, 16};
+        for (int length : new int[] {1, 5, 20, 21, 64, 333, 2500}) {
+            for (int source : bases) {
+                for (int target : bases) {
+                    byte[] digits = new byte[length];
+                    for (int i = 0; i < length; i++) {
+                        digits[i] = (byte) random.nextInt(source);
+                    }
+
+                    BigInteger expected = BigInteger.ZERO;
+                    for (byte digit : digits) {
+                        expected = expected.multiply(BigInteger.valueOf(source)).add(BigInteger.valueOf(digit));
+                    }
+
+                    byte[] actual = RadixConverter.convert(digits, 0, length, source, target);
+                    assertArrayEquals("Wrong conversion " + source + " -> " + target,
+                            toDigits(expected.toString(target), target), actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPowersAreSharedBetweenLists() {
+        NumberListImpl first = new NumberListImpl("9".repeat(3000));
+        first.toDecimalString();
+        long misses = RadixPowerCache.missCount();
+        assertTrue("Powers were not computed", misses > 0);
+        assertEquals("One pair for parsing (10 -> 8), one for printing (8 -> 10)", 2, RadixPowerCache.size());
+
+        NumberListImpl second = new NumberListImpl("8".repeat(3000));
+        assertEquals("8".repeat(3000), second.toDecimalString());
+        assertEquals("Powers were recomputed for the same pair of bases", misses, RadixPowerCache.missCount());
+        assertTrue(RadixPowerCache.hitCount() > 0);
+    }
+
+    @Test
+    public void testZeroAndLeadingZeros() {
+        assertArrayEquals(new byte[] {0}, RadixConverter.convert(new byte[] {0, 0, 0}, 0, 3, 8, 10));
+        assertArrayEquals(new byte[] {8}, RadixConverter.convert(new byte[] {0, 1, 0}, 0, 3, 8, 10));
+    }
+
+    private static byte[] toDigits(String value, int base) {
+        byte[] digits = new byte[value.length()];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = (byte) Character.digit(value.charAt(i), base);
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ResidueTest {
+    private static final long[] MODULI = {
+        1, 2, 7, 8, 10, 1_000_000_007L, 998_244_353L, 1L << 32, (1L << 32) + 1,
+        (1L << 33) + 17, (1L << 47) - 1, Residues.MERSENNE_61, (1L << 61) + 1, 1L << 62,
+        Long.MAX_VALUE, 0x7FFF_FFFF_FFFF_FFE7L
+    };
+
+    @Test
+    public void testMatchesBigInteger() {
+        Random random = new Random(43);
+        for (int length : new int[] {0, 1, 9, 10, 11, 30, 250, 5000}) {
+            BigInteger value = new BigInteger(length * 4, random);
+            NumberListImpl list = new NumberListImpl(value.toString());
+            NumberListImpl decimal = list.changeScale();
+            long[] expected = new long[MODULI.length];
+            for (int m = 0; m < MODULI.length; m++) {
+                expected[m] = value.mod(BigInteger.valueOf(MODULI[m])).longValueExact();
+                assertEquals(value + " mod " + MODULI[m], expected[m], list.residue(MODULI[m]));
+                assertEquals(value + " mod " + MODULI[m] + " (decimal)", expected[m], decimal.residue(MODULI[m]));
+            }
+            assertArrayEquals(expected, list.residues(MODULI));
+            assertArrayEquals(expected, decimal.residues(MODULI));
+        }
+    }
+
+    @Test
+    public void testLargeModulusStep() {
+        Random random = new Random(61);
+        for (int round = 0; round < 10000; round++) {
+            long modulus = random.nextLong() >>> 1 >>> random.nextInt(31);
+            if (modulus <= Residues.SMALL_MODULUS) {
+                continue;
+            }
+            long inverse = Residues.inverse(modulus);
+            long r = Long.remainderUnsigned(random.nextLong(), modulus);
+            long multiplier = 1 + random.nextInt(Integer.MAX_VALUE);
+            long chunk = random.nextInt(Integer.MAX_VALUE);
+            long expected = BigInteger.valueOf(r).multiply(BigInteger.valueOf(multiplier))
+                    .add(BigInteger.valueOf(chunk)).mod(BigInteger.valueOf(modulus)).longValueExact();
+            assertEquals(r + " * " + multiplier + " + " + chunk + " mod " + modulus,
+                    expected, Residues.step(r, multiplier, chunk, modulus, inverse));
+        }
+        long top = Long.MAX_VALUE - 1;
+        assertEquals(BigInteger.valueOf(top).shiftLeft(31).add(BigInteger.valueOf(Integer.MAX_VALUE))
+                .mod(BigInteger.valueOf(Long.MAX_VALUE)).longValueExact(),
+                Residues.step(top, 1L << 31, Integer.MAX_VALUE, Long.MAX_VALUE, Residues.inverse(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testEmptyListIsZero() {
+        assertEquals(0, new NumberListImpl().residue(1_000_000_007L));
+        assertEquals(0, new NumberListImpl().digitSum());
+        assertEquals(0, new NumberListImpl().residues().length);
+    }
+
+    @Test
+    public void testDigitSum() {
+        NumberListImpl list = new NumberListImpl("12345678901234567890");
+        long expected = 0;
+        for (byte digit : list) {
+            expected += digit;
+        }
+        assertEquals(expected, list.digitSum());
+        list.enableDigitIndex();
+        assertEquals("Indexed sum differs", expected, list.digitSum());
+        list.add((byte) 7);
+        assertEquals(expected + 7, list.digitSum());
+        assertEquals(90, new NumberListImpl("12345678901234567890").changeScale().digitSum());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testNonPositiveModulus() {
+        new NumberListImpl("10").residue(0);
+    }
+}
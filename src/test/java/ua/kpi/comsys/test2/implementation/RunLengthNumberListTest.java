@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.NumberList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RunLengthNumberListTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    RunLengthNumberList list = new RunLengthNumberList();
+
+    @After
+    public void tearDown() {
+        list.clear();
+    }
+
+    @Test
+    public void testConversions() {
+        list = new RunLengthNumberList(DECIMAL);
+        assertEquals(OCTAL, list.toString());
+        assertEquals(DECIMAL, list.toDecimalString());
+        assertEquals(DECIMAL, list.changeScale().toString());
+    }
+
+    @Test
+    public void testHugeRunsCostOnlyRuns() {
+        list.appendRun((byte) 1, 1);
+        list.appendRun((byte) 0, 1_000_000);
+        assertEquals(1_000_001, list.size());
+        assertEquals(2, list.runCount());
+        assertEquals((byte) 0, (byte) list.get(999_999));
+
+        RunLengthNumberList other = new RunLengthNumberList();
+        other.appendRun((byte) 7, 1_000_000);
+        RunLengthNumberList sum = list.additionalOperation(other);
+        assertEquals("1 000...0 + 777...7 = 1777...7", 2, sum.runCount());
+        assertEquals((byte) 1, (byte) sum.get(0));
+        assertEquals((byte) 7, (byte) sum.get(1_000_000));
+
+        list.shiftRight();
+        assertEquals(3, list.runCount());
+        assertEquals((byte) 1, (byte) list.get(1));
+        list.shiftLeft();
+        list.shiftLeft();
+        assertEquals(2, list.runCount());
+        assertEquals((byte) 1, (byte) list.get(1_000_000));
+    }
+
+    @Test
+    public void testAdditionMatchesBigInteger() {
+        Random random = new Random(35);
+        for (int round = 0; round < 200; round++) {
+            BigInteger a = runny(random);
+            BigInteger b = runny(random);
+            RunLengthNumberList x = new RunLengthNumberList(a.toString());
+            assertEquals(a.add(b).toString(),
+                    x.additionalOperation(new RunLengthNumberList(b.toString())).toDecimalString());
+            assertEquals(a.add(b).toString(),
+                    x.additionalOperation(new NumberListImpl(b.toString())).toDecimalString());
+        }
+    }
+
+    @Test
+    public void testMutationsMatchLinkedList() {
+        Random random = new Random(36);
+        NumberListImpl reference = new NumberListImpl();
+        for (int step = 0; step < 3000; step++) {
+            int size = reference.size();
+            byte digit = (byte) (random.nextInt(10) < 7 ? 3 : random.nextInt(8));
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    int index = random.nextInt(size + 1);
+                    reference.add(index, digit);
+                    list.add(index, digit);
+                }
+                case 2 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(reference.remove(index), list.remove(index));
+                    }
+                }
+                case 3 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(reference.set(index, digit), list.set(index, digit));
+                    }
+                }
+                case 4 -> {
+                    reference.shiftLeft();
+                    list.shiftLeft();
+                }
+                default -> {
+                    reference.shiftRight();
+                    list.shiftRight();
+                }
+            }
+            assertEquals("Step " + step, reference.toString(), list.toString());
+        }
+        assertEquals(reference.indexOf((byte) 5), list.indexOf((byte) 5));
+        assertEquals(reference.lastIndexOf((byte) 3), list.lastIndexOf((byte) 3));
+
+        Iterator<Byte> it = list.iterator();
+        while (it.hasNext()) {
+            if (it.next() == 3) {
+                it.remove();
+            }
+        }
+        assertEquals(-1, list.indexOf((byte) 3));
+
+        reference = new NumberListImpl();
+        reference.addAll(list);
+        list.sortDescending();
+        reference.sortDescending();
+        assertEquals(reference.toString(), list.toString());
+        assertTrue(list.runCount() <= 8);
+    }
+
+    @Test
+    public void testFactoryPicksRepresentation() {
+        NumberList repetitive = NumberLists.valueOf(BigInteger.ONE.shiftLeft(3000).toString());
+        assertTrue("2^3000 is 1 followed by zeros in octal", repetitive instanceof RunLengthNumberList);
+        assertEquals(BigInteger.ONE.shiftLeft(3000).toString(), ((RunLengthNumberList) repetitive).toDecimalString());
+
+        NumberListImpl plain = new NumberListImpl(DECIMAL);
+        assertSame(plain, NumberLists.compact(plain));
+    }
+
+    // Число з кількох довгих серій вісімкових цифр
+    private static BigInteger runny(Random random) {
+        BigInteger value = BigInteger.ZERO;
+        for (int run = random.nextInt(6); run > 0; run--) {
+            int length = 1 + random.nextInt(40);
+            int digit = random.nextInt(8);
+            for (int i = 0; i < length; i++) {
+                value = value.shiftLeft(3).add(BigInteger.valueOf(digit));
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScalarArithmeticTest {
+
+    @Test
+    public void testMatchesBigInteger() {
+        Random random = new Random(49);
+        for (int round = 0; round < 200; round++) {
+            BigInteger value = new BigInteger(1 + random.nextInt(2000), random);
+            long factor = random.nextInt(4) == 0 ? random.nextInt(20) : random.nextLong() >>> 4;
+            long divisor = 1 + (random.nextLong() >>> (5 + random.nextInt(59)));
+            long addend = random.nextLong() >>> 1;
+
+            NumberListImpl list = new NumberListImpl(value.toString());
+            list.multiplySmall(factor);
+            value = value.multiply(BigInteger.valueOf(factor));
+            assertEquals("* " + factor, value.toString(), list.toDecimalString());
+
+            long remainder = list.divideSmall(divisor);
+            BigInteger[] parts = value.divideAndRemainder(BigInteger.valueOf(divisor));
+            assertEquals("% " + divisor, parts[1].longValue(), remainder);
+            assertEquals("/ " + divisor, parts[0].toString(), list.toDecimalString());
+            assertEquals("Leading zeros left", parts[0].toString(8), list.toString());
+
+            list.addSmall(addend);
+            assertEquals("+ " + addend, parts[0].add(BigInteger.valueOf(addend)).toString(), list.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testDecimalBase() {
+        NumberListImpl list = new NumberListImpl("999").changeScale();
+        list.multiplySmall(1001);
+        assertEquals("999999", list.toString());
+        assertEquals(9, list.divideSmall(10));
+        assertEquals("99999", list.toString());
+        assertEquals(4, list.divideSmall(7));
+        assertEquals("14285", list.toString());
+    }
+
+    @Test
+    public void testMultiplyByZeroLeavesOneDigit() {
+        NumberListImpl list = new NumberListImpl("12345");
+        list.enableDigitIndex();
+        list.multiplySmall(0);
+        assertEquals(1, list.size());
+        assertEquals("0", list.toString());
+        assertEquals(1, list.countOf((byte) 0));
+        assertEquals(0, list.countOf((byte) 1));
+        assertEquals(0, list.indexOf((byte) 0));
+
+        list.incrementBy(9);
+        assertEquals("11", list.toString());
+        list.multiplySmall(0);
+        assertEquals("0", list.toString());
+    }
+
+    @Test
+    public void testDigitIndexStaysConsistent() {
+        NumberListImpl list = new NumberListImpl("12345678901234567890");
+        list.enableDigitIndex();
+        list.multiplySmall(123_456_789L);
+        list.divideSmall(97);
+        list.addSmall(77);
+
+        NumberListImpl fresh = new NumberListImpl(list.toDecimalString());
+        for (byte digit = 0; digit < 8; digit++) {
+            assertEquals("count of " + digit, fresh.countOf(digit), list.countOf(digit));
+            assertEquals("first " + digit, fresh.indexOf(digit), list.indexOf(digit));
+            assertEquals("last " + digit, fresh.lastIndexOf(digit), list.lastIndexOf(digit));
+        }
+    }
+
+    @Test
+    public void testEmptyList() {
+        NumberListImpl list = new NumberListImpl();
+        list.multiplySmall(5);
+        assertEquals(0, list.divideSmall(5));
+        assertEquals(0, list.size());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivisionByZero() {
+        new NumberListImpl("10").divideSmall(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeFactor() {
+        new NumberListImpl("10").multiplySmall(-2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFactorTooLarge() {
+        new NumberListImpl("10").multiplySmall(Long.MAX_VALUE / 4);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class VersionedNumberListTest {
+
+    @Test
+    public void testSnapshotIsIsolatedFromUpdates() {
+        NumberListImpl source = new NumberListImpl("1000");
+        VersionedNumberList shared = new VersionedNumberList(source);
+        source.clear(); // публікація не залежить від аргументу
+
+        VersionedNumberList.Snapshot before = shared.snapshot();
+        assertEquals(0, before.version());
+        VersionedNumberList.Snapshot after = shared.update(list -> list.incrementBy(24));
+        assertSame(after, shared.snapshot());
+        assertEquals(1, shared.version());
+
+        assertEquals("1000", before.toDecimalString());
+        assertEquals("1024", after.toDecimalString());
+        assertEquals(new NumberListImpl("1024"), after.toNumberListImpl());
+        assertEquals(after.toNumberListImpl(), after);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() {
+        new VersionedNumberList(new NumberListImpl("1000")).snapshot().add((byte) 1);
+    }
+
+    @Test
+    public void testFailedUpdateIsPublished() {
+        VersionedNumberList shared = new VersionedNumberList(new NumberListImpl("8"));
+        try {
+            shared.update(list -> {
+                list.add((byte) 1);
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException e) {
+            // очікувано
+        }
+        assertEquals("101", shared.snapshot().toString());
+        assertEquals(1, shared.version());
+    }
+
+    @Test
+    public void testReadersSeeConsistentVersions() throws InterruptedException {
+        // кожне оновлення додає 1, тож значення знімка завжди дорівнює base + version;
+        // base = 8^6667, тож у вісімковому записі 1 і нулі
+        BigInteger base = BigInteger.ONE.shiftLeft(20_001);
+        VersionedNumberList shared = new VersionedNumberList(new NumberListImpl(base.toString()));
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                long last = -1;
+                while (!stop.get() && failure.get() == null) {
+                    VersionedNumberList.Snapshot snapshot = shared.snapshot();
+                    BigInteger expected = base.add(BigInteger.valueOf(snapshot.version()));
+                    if (snapshot.version() < last) {
+                        failure.set("Version went back: " + snapshot.version() + " < " + last);
+                    } else if (!expected.toString().equals(snapshot.toDecimalString())) {
+                        failure.set("Torn snapshot at version " + snapshot.version());
+                    } else if (snapshot.get(0) != 1 || snapshot.size() != (expected.bitLength() - 1) / 3 + 1) {
+                        failure.set("Wrong digits at version " + snapshot.version());
+                    }
+                    last = snapshot.version();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            shared.update(list -> list.incrementBy(1));
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), failure.get());
+        assertEquals(2_000, shared.version());
+        assertEquals(base.add(BigInteger.valueOf(2_000)).toString(), shared.snapshot().toDecimalString());
+    }
+}
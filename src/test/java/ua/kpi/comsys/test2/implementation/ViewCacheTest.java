@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ViewCacheTest {
+    static String DECIMAL = "1212144468782345613";
+
+    NumberListImpl list;
+
+    @After
+    public void tearDown() {
+        NumberListImpl.setSoftViewCache(false);
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testRepeatedReadsAreCached() {
+        list = new NumberListImpl(DECIMAL);
+
+        String decimal = list.toDecimalString();
+        assertSame("Decimal view is not cached", decimal, list.toDecimalString());
+        assertSame("Native view is not cached", list.toString(), list.toString());
+    }
+
+    @Test
+    public void testMutationInvalidatesCache() {
+        list = new NumberListImpl("8");
+        assertEquals("8", list.toDecimalString());
+        assertEquals("10", list.toString());
+
+        list.add((byte) 1);
+        assertEquals("Stale decimal view after mutation", "65", list.toDecimalString());
+        assertEquals("Stale native view after mutation", "101", list.toString());
+
+        list.shiftLeft();
+        assertEquals("Stale decimal view after shift", "9", list.toDecimalString());
+        assertEquals("Stale alternative view after shift", "9", list.changeScale().toString());
+    }
+
+    @Test
+    public void testChangeScaleReturnsIndependentLists() {
+        list = new NumberListImpl(DECIMAL);
+
+        NumberListImpl first = list.changeScale();
+        NumberListImpl second = list.changeScale();
+        assertNotSame(first, second);
+        assertEquals(first, second);
+
+        first.set(0, (byte) 9);
+        assertEquals("Cached result was shared between calls", DECIMAL, list.changeScale().toString());
+        assertEquals(DECIMAL, second.toDecimalString());
+    }
+
+    @Test
+    public void testSoftCache() {
+        NumberListImpl.setSoftViewCache(true);
+        list = new NumberListImpl(DECIMAL);
+
+        assertEquals(DECIMAL, list.toDecimalString());
+        assertEquals(DECIMAL, list.toDecimalString());
+        assertEquals(DECIMAL, list.changeScale().toDecimalString());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WriteToTest {
+    static String DECIMAL = "1212144468782345613";
+    static String OCTAL = "103223157433616366615";
+
+    NumberListImpl list = new NumberListImpl();
+
+    @After
+    public void tearDown() {
+        list.clear();
+    }
+
+    @Test
+    public void testWritesMatchStrings() throws IOException {
+        Random random = new Random(37);
+        for (int bits : new int[] {0, 1, 64, 3000, 100_000}) {
+            BigInteger value = new BigInteger(bits, random);
+            list = new NumberListImpl(value.toString());
+
+            StringBuilder nativeOut = new StringBuilder();
+            list.writeTo(nativeOut);
+            assertEquals(list.toString(), nativeOut.toString());
+
+            StringWriter decimalOut = new StringWriter();
+            list.writeDecimalTo(decimalOut);
+            assertEquals(value.toString(), decimalOut.toString());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            list.writeDecimalTo(Channels.newChannel(bytes));
+            assertEquals(value.toString(), bytes.toString(StandardCharsets.US_ASCII));
+
+            bytes.reset();
+            list.writeTo(Channels.newChannel(bytes));
+            assertEquals(value.toString(8), bytes.toString(StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void testDecimalWithLongZeroRuns() throws IOException {
+        // внутрішні нулі довші за блок long видаються окремими порціями
+        BigInteger value = BigInteger.TEN.pow(5000).add(BigInteger.valueOf(7));
+        list = new NumberListImpl(value.toString());
+        StringBuilder out = new StringBuilder();
+        list.writeDecimalTo(out);
+        assertEquals(value.toString(), out.toString());
+    }
+
+    @Test
+    public void testCharSequenceViews() {
+        list = new NumberListImpl(DECIMAL);
+        CharSequence octal = list.asCharSequence();
+        CharSequence decimal = list.asDecimalCharSequence();
+
+        assertEquals(OCTAL.length(), octal.length());
+        assertEquals(OCTAL, octal.toString());
+        assertEquals(OCTAL.substring(3, 9), octal.subSequence(3, 9).toString());
+        assertEquals(OCTAL.charAt(20), octal.charAt(20));
+        assertEquals(OCTAL.charAt(2), octal.charAt(2));
+        assertEquals(DECIMAL, decimal.toString());
+        assertEquals(DECIMAL.substring(5), decimal.subSequence(5, decimal.length()).toString());
+
+        list.incrementBy(1);
+        assertEquals("Views follow the list", '6', octal.charAt(20));
+        assertEquals('4', decimal.charAt(decimal.length() - 1));
+
+        list.clear();
+        assertEquals("0", octal.toString());
+        assertEquals(1, decimal.length());
+    }
+}